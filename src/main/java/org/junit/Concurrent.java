@@ -0,0 +1,64 @@
+package org.junit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a test method on several threads at once, to stress code that has to be
+ * thread-safe, such as lock-free data structures.
+ *
+ * <p>The method is invoked {@link #repetitions()} times on each of
+ * {@link #threads()} threads. In each repetition the threads are released
+ * together by a barrier, and all of them use the same instance of the test
+ * class. {@link Before} and {@link After} methods and rules run once, around
+ * all invocations. If invocations fail, the test fails with all of their
+ * exceptions, and no further repetitions are started. If
+ * {@link #reportThroughput()} is set, the number of invocations per second is
+ * written to {@code System.out} when the test has finished.
+ *
+ * <p>A concurrent test cannot expect an exception with {@link Test#expected()};
+ * use {@link Assert#assertThrows(Class, org.junit.function.ThrowingRunnable)}
+ * within the method instead.
+ *
+ * Here is an example:
+ *
+ * <pre>
+ * public class CounterTest {
+ *     private final AtomicCounter counter = new AtomicCounter();
+ *
+ *     &#064;Test
+ *     &#064;Concurrent(threads = 8, repetitions = 1000)
+ *     public void incrementsAreNotLost() {
+ *         long before = counter.get();
+ *         counter.increment();
+ *         assertTrue(counter.get() &gt; before);
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>The annotation is honored by {@link org.junit.runners.BlockJUnit4ClassRunner}
+ * and its subclasses that use its {@code methodInvoker}.
+ *
+ * @since 4.13.3
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD})
+public @interface Concurrent {
+    /**
+     * The number of threads that invoke the method at the same time.
+     */
+    int threads();
+
+    /**
+     * The number of times that each thread invokes the method.
+     */
+    int repetitions() default 1;
+
+    /**
+     * Whether the number of invocations per second is written to
+     * {@code System.out}.
+     */
+    boolean reportThroughput() default false;
+}
@@ -0,0 +1,62 @@
+package org.junit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * This annotation allows the user to choose how many instances of a test class
+ * are created to run its test methods.
+ *
+ * <p>By default, a new instance is created for each test method, so tests
+ * cannot see each other's changes to the fields of the test class. Classes that
+ * build large fixtures in field initializers or constructors can instead share
+ * one instance between all their test methods, see {@link Lifecycle#PER_CLASS}.
+ * {@link Before} and {@link After} methods and {@link Rule}s are still applied
+ * to each test method.
+ *
+ * Here is an example:
+ *
+ * <pre>
+ * &#064;TestInstance(TestInstance.Lifecycle.PER_CLASS)
+ * public class CatalogTest {
+ *     private final Catalog catalog = Catalog.load(&quot;large-catalog.xml&quot;);
+ *     ...
+ * }
+ * </pre>
+ *
+ * <p>The annotation is honored by {@link org.junit.runners.BlockJUnit4ClassRunner}
+ * and its subclasses that use its {@code methodBlock}.
+ *
+ * @since 4.13.3
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+@Inherited
+public @interface TestInstance {
+    /**
+     * The lifecycles of test class instances.
+     */
+    enum Lifecycle {
+        /**
+         * A new instance is created for each test method. This is the default.
+         */
+        PER_METHOD,
+
+        /**
+         * One instance is created for the first test method of the class and
+         * is used for all its other test methods, too. Fields, including the
+         * fields that hold rules, keep their values from one test method to the
+         * next. If the test methods run in parallel, they use the instance
+         * concurrently.
+         */
+        PER_CLASS
+    }
+
+    /**
+     * The lifecycle of the instances of the annotated class.
+     */
+    Lifecycle value();
+}
@@ -0,0 +1,50 @@
+package org.junit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the time that a whole test class or suite may take, including its
+ * {@link BeforeClass} and {@link AfterClass} methods and its class rules.
+ *
+ * <p>When the budget is used up, the class is cut off: the test that is
+ * running fails with a {@link org.junit.runners.model.TestTimedOutException},
+ * the remaining tests are not run, the run does not wait for the
+ * {@link AfterClass} methods, and the class fails with a
+ * {@link org.junit.runners.model.TimeBudgetExceededException} that lists
+ * them. The thread that ran the class is interrupted, and nothing it reports
+ * afterwards reaches the listeners.
+ *
+ * <p>Timeouts of the tests within the class, either from {@link Test#timeout()}
+ * or from a {@link org.junit.rules.Timeout} rule, are limited to the budget
+ * that remains when the test starts. Budgets of nested suites and classes are
+ * limited the same way.
+ *
+ * Here is an example:
+ *
+ * <pre>
+ * &#064;TimeBudget(90)
+ * public class CustomerIntegrationTest {
+ *     ...
+ * }
+ * </pre>
+ *
+ * @see org.junit.runners.ParentRunner#classBlock(org.junit.runner.notification.RunNotifier)
+ * @since 4.13.3
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+public @interface TimeBudget {
+    /**
+     * The time that the class may take, in {@link #unit()}s.
+     */
+    long value();
+
+    /**
+     * The unit of {@link #value()}. Defaults to {@link TimeUnit#SECONDS}.
+     */
+    TimeUnit unit() default TimeUnit.SECONDS;
+}
@@ -0,0 +1,61 @@
+package org.junit.experimental;
+
+import org.junit.runner.Description;
+import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.Filterable;
+import org.junit.runner.manipulation.InvalidOrderingException;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.manipulation.Orderable;
+import org.junit.runner.manipulation.Orderer;
+import org.junit.runner.manipulation.Sorter;
+import org.junit.runner.notification.RunNotifier;
+
+/**
+ * Runs a test class that was loaded by an {@link org.junit.internal.IsolatingClassLoader}, with
+ * that class loader as the context class loader of the running threads.
+ */
+final class IsolatedClassRunner extends Runner implements Filterable, Orderable {
+    private final Runner runner;
+
+    private final ClassLoader classLoader;
+
+    IsolatedClassRunner(Runner runner, ClassLoader classLoader) {
+        this.runner = runner;
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public Description getDescription() {
+        return runner.getDescription();
+    }
+
+    @Override
+    public void run(RunNotifier notifier) {
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            runner.run(notifier);
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    @Override
+    public int testCount() {
+        return runner.testCount();
+    }
+
+    public void filter(Filter filter) throws NoTestsRemainException {
+        filter.apply(runner);
+    }
+
+    public void sort(Sorter sorter) {
+        sorter.apply(runner);
+    }
+
+    public void order(Orderer orderer) throws InvalidOrderingException {
+        orderer.apply(runner);
+    }
+}
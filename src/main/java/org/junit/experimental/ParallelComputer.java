@@ -1,24 +1,73 @@
 package org.junit.experimental;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.Comparator;
 
+import org.junit.experimental.max.MaxHistory;
+import org.junit.internal.IsolatingClassLoader;
 import org.junit.runner.Computer;
+import org.junit.runner.Description;
 import org.junit.runner.Runner;
 import org.junit.runners.ParentRunner;
+import org.junit.runners.PipelinedSuite;
 import org.junit.runners.model.InitializationError;
 import org.junit.runners.model.RunnerBuilder;
-import org.junit.runners.model.RunnerScheduler;
 
+/**
+ * A {@link Computer} that runs test classes, test methods or both in parallel.
+ *
+ * <p>All levels of the runner tree share one bounded pool of threads. A parent
+ * that waits for its children runs the children that are still queued itself,
+ * so nested suites cannot deadlock or starve the pool.
+ *
+ * <p>Test classes whose static state would get in each other's way can be
+ * given their own class loaders, see {@link Builder#withIsolatedClassLoaders()}.
+ */
 public class ParallelComputer extends Computer {
     private final boolean classes;
 
     private final boolean methods;
 
+    private final SharedRunnerPool pool;
+
+    private final MaxHistory history;
+
+    private final boolean isolated;
+
     public ParallelComputer(boolean classes, boolean methods) {
-        this.classes = classes;
-        this.methods = methods;
+        this(builder().withParallelClasses(classes).withParallelMethods(methods));
+    }
+
+    /**
+     * Creates a {@code ParallelComputer} whose pool uses at most
+     * {@code parallelism} threads for the whole run.
+     *
+     * @param classes {@code true} to run test classes in parallel
+     * @param methods {@code true} to run the test methods of each class in parallel
+     * @param parallelism the maximum number of pool threads
+     * @since 4.13.3
+     */
+    public ParallelComputer(boolean classes, boolean methods, int parallelism) {
+        this(builder().withParallelClasses(classes).withParallelMethods(methods)
+                .withParallelism(parallelism));
+    }
+
+    private ParallelComputer(Builder builder) {
+        this.classes = builder.classes;
+        this.methods = builder.methods;
+        this.pool = builder.maxConcurrentTests > 0
+                ? SharedRunnerPool.withVirtualThreads(builder.maxConcurrentTests)
+                : new SharedRunnerPool(builder.parallelism);
+        this.history = builder.history;
+        this.isolated = builder.isolated;
+    }
+
+    /**
+     * Returns a new builder for building an instance.
+     *
+     * @since 4.13.3
+     */
+    public static Builder builder() {
+        return new Builder();
     }
 
     public static Computer classes() {
@@ -29,24 +78,131 @@ public class ParallelComputer extends Computer {
         return new ParallelComputer(false, true);
     }
 
-    private static Runner parallelize(Runner runner) {
+    /**
+     * Builder for {@link ParallelComputer}.
+     *
+     * @since 4.13.3
+     */
+    public static class Builder {
+        private boolean classes = false;
+        private boolean methods = false;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int maxConcurrentTests = 0;
+        private MaxHistory history = null;
+        private boolean isolated = false;
+
+        private Builder() {
+        }
+
+        /**
+         * Specifies whether the test classes are run in parallel.
+         *
+         * @return {@code this} for method chaining.
+         */
+        public Builder withParallelClasses(boolean enable) {
+            this.classes = enable;
+            return this;
+        }
+
+        /**
+         * Specifies whether the test methods of each class are run in parallel.
+         *
+         * @return {@code this} for method chaining.
+         */
+        public Builder withParallelMethods(boolean enable) {
+            this.methods = enable;
+            return this;
+        }
+
+        /**
+         * Specifies the maximum number of pool threads. Defaults to the number
+         * of available processors.
+         *
+         * @return {@code this} for method chaining.
+         */
+        public Builder withParallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be positive");
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Runs each test class or method on its own virtual thread, which suits
+         * tests that spend most of their time blocked on I/O. At most
+         * {@code maxConcurrentTests} of them run at the same time. On JVMs
+         * without virtual threads, a pool of {@code maxConcurrentTests}
+         * platform threads is used instead.
+         *
+         * @param maxConcurrentTests the maximum number of concurrently running
+         * classes or methods
+         * @return {@code this} for method chaining.
+         */
+        public Builder withVirtualThreads(int maxConcurrentTests) {
+            if (maxConcurrentTests < 1) {
+                throw new IllegalArgumentException("maxConcurrentTests must be positive");
+            }
+            this.maxConcurrentTests = maxConcurrentTests;
+            return this;
+        }
+
+        /**
+         * Submits the test classes with the longest expected duration first,
+         * so that no long class starts late and decides the wall-clock time of
+         * the run. Durations are taken from the given history. Classes without
+         * any history are ranked by their number of tests.
+         *
+         * <p>Only the order in which the classes are started changes, once the
+         * run has started and filters have been applied: the description of
+         * the suite and the order of the methods within each class stay as
+         * they are.
+         *
+         * @param history the history that provides the durations of the tests
+         * @return {@code this} for method chaining.
+         * @see MaxHistory#longestFirstComparator()
+         */
+        public Builder withLongestFirst(MaxHistory history) {
+            if (history == null) {
+                throw new NullPointerException("history cannot be null");
+            }
+            this.history = history;
+            return this;
+        }
+
+        /**
+         * Loads each top-level test class, together with the application
+         * classes that it uses, with a class loader of its own. Classes that
+         * keep mutable state in static fields can then run in parallel within
+         * one JVM, without forking workers. The classes of the JDK, JUnit and
+         * Hamcrest are shared by all test classes. While a test class runs, its
+         * class loader is the context class loader of the threads that run it.
+         *
+         * <p>Every isolated test class loads its application classes again, so
+         * this costs class loading time and memory for each test class. Tests
+         * that access package-private members of classes in the JUnit jar do
+         * not work, because the two are loaded by different class loaders.
+         *
+         * @return {@code this} for method chaining.
+         */
+        public Builder withIsolatedClassLoaders() {
+            this.isolated = true;
+            return this;
+        }
+
+        /**
+         * Builds a {@link ParallelComputer} using the values in this builder.
+         */
+        public ParallelComputer build() {
+            return new ParallelComputer(this);
+        }
+    }
+
+    private Runner parallelize(Runner runner, boolean concurrent, boolean childrenUsePool,
+            Comparator<Description> order) {
         if (runner instanceof ParentRunner) {
-            ((ParentRunner<?>) runner).setScheduler(new RunnerScheduler() {
-                private final ExecutorService fService = Executors.newCachedThreadPool();
-
-                public void schedule(Runnable childStatement) {
-                    fService.submit(childStatement);
-                }
-
-                public void finished() {
-                    try {
-                        fService.shutdown();
-                        fService.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
-                    } catch (InterruptedException e) {
-                        e.printStackTrace(System.err);
-                    }
-                }
-            });
+            ((ParentRunner<?>) runner).setScheduler(
+                    pool.newScheduler(concurrent, childrenUsePool, order));
         }
         return runner;
     }
@@ -55,13 +211,36 @@ public class ParallelComputer extends Computer {
     public Runner getSuite(RunnerBuilder builder, java.lang.Class<?>[] classes)
             throws InitializationError {
         Runner suite = super.getSuite(builder, classes);
-        return this.classes ? parallelize(suite) : suite;
+        // The suite always uses the pool, so that it stays alive from the
+        // first class to the last one. Classes whose methods are not handed to
+        // the pool take the resource locks of their methods themselves.
+        return parallelize(suite, this.classes, methods,
+                history == null ? null : history.longestFirstComparator());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Classes are submitted in the order given, even if this computer
+     * was built {@link Builder#withLongestFirst(MaxHistory) longest first}.
+     */
+    @Override
+    public Runner getPipelinedSuite(RunnerBuilder builder, Class<?>[] classes) {
+        PipelinedSuite suite = (PipelinedSuite) super.getPipelinedSuite(builder, classes);
+        suite.setScheduler(pool.newScheduler(this.classes, methods, null));
+        return suite;
     }
 
     @Override
     protected Runner getRunner(RunnerBuilder builder, Class<?> testClass)
             throws Throwable {
+        if (isolated) {
+            IsolatingClassLoader classLoader = new IsolatingClassLoader(testClass.getClassLoader());
+            Class<?> isolatedClass = Class.forName(testClass.getName(), false, classLoader);
+            Runner runner = super.getRunner(builder, isolatedClass);
+            return new IsolatedClassRunner(methods ? parallelize(runner, true, false, null) : runner, classLoader);
+        }
         Runner runner = super.getRunner(builder, testClass);
-        return methods ? parallelize(runner) : runner;
+        return methods ? parallelize(runner, true, false, null) : runner;
     }
 }
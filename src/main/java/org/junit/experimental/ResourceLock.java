@@ -0,0 +1,67 @@
+package org.junit.experimental;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the shared resources that a test method or a test class uses, so
+ * that a {@link ParallelComputer} does not run it at the same time as other
+ * tests that use them in a conflicting way.
+ *
+ * <p>Tests that only read a resource may run together; a test that writes it
+ * runs alone with respect to that resource. Everything without conflicting
+ * locks still runs in parallel. A test that has to wait for a resource does not
+ * occupy a pool thread while it waits. A test class with a lock takes the locks
+ * of all of its test methods as well, and holds them while the whole class
+ * runs; its test methods then only wait for each other.
+ *
+ * Here is an example:
+ *
+ * <pre>
+ * public class DatabaseTest {
+ *     &#064;Test
+ *     &#064;ResourceLock("test-database")
+ *     public void migratesSchema() {
+ *         ...
+ *     }
+ *
+ *     &#064;Test
+ *     &#064;ResourceLock(value = "test-database", mode = ResourceLock.Mode.READ)
+ *     public void readsCustomers() {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ *
+ * @since 4.13.3
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface ResourceLock {
+    /**
+     * The names of the locked resources, for example {@code "system-properties"}.
+     */
+    String[] value();
+
+    /**
+     * How the resources are used. Defaults to {@link Mode#READ_WRITE}.
+     */
+    Mode mode() default Mode.READ_WRITE;
+
+    /**
+     * The ways in which a test can use a resource.
+     */
+    enum Mode {
+        /**
+         * The test only reads the resource; other readers may run at the same time.
+         */
+        READ,
+
+        /**
+         * The test changes the resource; nobody else may use it at the same time.
+         */
+        READ_WRITE
+    }
+}
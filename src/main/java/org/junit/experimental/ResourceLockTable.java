@@ -0,0 +1,177 @@
+package org.junit.experimental;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.experimental.ResourceLock.Mode;
+import org.junit.runner.Description;
+
+/**
+ * The {@link ResourceLock}s held during a run.
+ *
+ * <p>Locks are never waited for: a task that cannot get all of its locks takes
+ * none of them, is remembered with the resource it could not get and is woken
+ * up as soon as a lock on that resource has been released, so that it can try
+ * again.
+ *
+ * <p>A task with children (a test class, for example) takes the locks of all of
+ * its descendants together with its own. Its descendants then only compete
+ * with each other for those locks, so a task never holds locks while it waits
+ * for locks held by a task outside of its own subtree, and locks cannot
+ * deadlock.
+ */
+final class ResourceLockTable {
+    /**
+     * A task that waits for locks.
+     */
+    interface Waiter {
+        /**
+         * Called after a lock on the resource that the task waits for has been
+         * released. Called without holding any monitor of the table.
+         */
+        void wake();
+    }
+
+    /**
+     * The locks that a single task has taken from the table, mapping each
+     * resource name to {@code true} for write access and {@code false} for
+     * read access.
+     */
+    static final class Grant {
+        private final Map<String, Boolean> locks;
+
+        private Grant(Map<String, Boolean> locks) {
+            this.locks = locks;
+        }
+    }
+
+    private static final class Resource {
+        int readers = 0;
+
+        int writers = 0;
+
+        final Set<Waiter> waiters = new LinkedHashSet<Waiter>();
+    }
+
+    private final Map<String, Resource> resources = new HashMap<String, Resource>();
+
+    /**
+     * Returns the locks that a task for the given description has to take,
+     * mapping each resource name to {@code true} for write access and
+     * {@code false} for read access. If the description itself has no
+     * {@link ResourceLock}, the task takes no locks at all, unless its
+     * descendants are run by the task itself instead of being scheduled as
+     * tasks of their own.
+     *
+     * @param description the description of the task
+     * @param runsDescendants {@code true} if the task runs its descendants
+     * itself, so that it has to take their locks for them
+     */
+    static Map<String, Boolean> locksOf(Description description, boolean runsDescendants) {
+        if (!runsDescendants && description.getAnnotation(ResourceLock.class) == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, Boolean> locks = new HashMap<String, Boolean>();
+        collectLocks(description, locks);
+        return locks;
+    }
+
+    private static void collectLocks(Description description, Map<String, Boolean> locks) {
+        ResourceLock annotation = description.getAnnotation(ResourceLock.class);
+        if (annotation != null) {
+            boolean write = annotation.mode() == Mode.READ_WRITE;
+            for (String each : annotation.value()) {
+                Boolean previous = locks.get(each);
+                locks.put(each, write || (previous != null && previous));
+            }
+        }
+        for (Description each : description.getChildren()) {
+            collectLocks(each, locks);
+        }
+    }
+
+    /**
+     * Claims a task and takes its locks, if both are possible. Locks held by
+     * the enclosing tasks are ignored; the task only waits for other tasks
+     * within the same enclosing task.
+     *
+     * @param claimed the flag that is set when the task is claimed
+     * @param requested the locks of the task, as returned by
+     * {@link #locksOf(Description, boolean)}
+     * @param inherited the grants of the enclosing tasks
+     * @param waiter woken up once a lock on the resource that blocked the
+     * task was released, if the task could not get its locks
+     * @return the locks taken, or {@code null} if the task has already been
+     * claimed or has to wait for its locks
+     */
+    synchronized Grant tryClaim(AtomicBoolean claimed, Map<String, Boolean> requested,
+            List<Grant> inherited, Waiter waiter) {
+        if (claimed.get()) {
+            return null;
+        }
+        for (Map.Entry<String, Boolean> each : requested.entrySet()) {
+            Resource resource = resource(each.getKey());
+            int readers = resource.readers;
+            int writers = resource.writers;
+            for (Grant grant : inherited) {
+                Boolean write = grant.locks.get(each.getKey());
+                if (write != null && write) {
+                    writers--;
+                } else if (write != null) {
+                    readers--;
+                }
+            }
+            if (writers > 0 || (each.getValue() && readers > 0)) {
+                resource.waiters.add(waiter);
+                return null;
+            }
+        }
+        for (Map.Entry<String, Boolean> each : requested.entrySet()) {
+            Resource resource = resource(each.getKey());
+            if (each.getValue()) {
+                resource.writers++;
+            } else {
+                resource.readers++;
+            }
+        }
+        claimed.set(true);
+        return new Grant(requested);
+    }
+
+    private Resource resource(String name) {
+        Resource resource = resources.get(name);
+        if (resource == null) {
+            resource = new Resource();
+            resources.put(name, resource);
+        }
+        return resource;
+    }
+
+    /**
+     * Releases the given locks and wakes up the tasks that wait for one of
+     * their resources.
+     */
+    void release(Grant grant) {
+        Set<Waiter> toWake = new LinkedHashSet<Waiter>();
+        synchronized (this) {
+            for (Map.Entry<String, Boolean> each : grant.locks.entrySet()) {
+                Resource resource = resources.get(each.getKey());
+                if (each.getValue()) {
+                    resource.writers--;
+                } else {
+                    resource.readers--;
+                }
+                toWake.addAll(resource.waiters);
+                resource.waiters.clear();
+            }
+        }
+        for (Waiter each : toWake) {
+            each.wake();
+        }
+    }
+}
@@ -0,0 +1,536 @@
+package org.junit.experimental;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.internal.runners.statements.ManagedBlocking;
+import org.junit.runner.Describable;
+import org.junit.runner.Description;
+import org.junit.runners.model.RunnerScheduler;
+
+/**
+ * A bounded pool of threads that is shared by every level of a runner tree.
+ *
+ * <p>Each {@link org.junit.runners.ParentRunner} gets its own
+ * {@link RunnerScheduler} from {@link #newScheduler(boolean)}, but all of them
+ * submit their children to the same threads. When a parent waits for its
+ * children in {@link RunnerScheduler#finished()} it does not block: it runs
+ * those of its children that no pool thread has picked up yet itself, most
+ * recently scheduled first. Because a waiting parent always makes progress on
+ * its own children, nested suites can neither deadlock nor starve the pool,
+ * regardless of its size.
+ *
+ * <p>The threads are started on demand and are shut down as soon as the last
+ * scheduler that used them has finished.
+ *
+ * <p>A pool created with {@link #withVirtualThreads(int)} starts a virtual
+ * thread for each child instead, if the JVM supports them, and uses a
+ * {@link Semaphore} to limit how many threads run children at once. This
+ * includes the threads of parents that run their own children while they wait
+ * for them. A thread that already holds a permit runs the children of its
+ * parent with that permit.
+ *
+ * <p>Children whose {@link org.junit.runner.Description} has a
+ * {@link ResourceLock} only run while they hold the locks of a
+ * {@link ResourceLockTable} that is shared by the whole run.
+ *
+ * <p>A child that blocks through {@link ManagedBlocking}, such as an
+ * asynchronous test waiting for its result, does not count against the
+ * parallelism of the pool while it waits: the pool starts another thread, or
+ * hands out another permit, for as long as the child is blocked. It does so
+ * for at most four blocked children per thread of its parallelism; further
+ * children block as usual.
+ */
+final class SharedRunnerPool {
+    /**
+     * The number of blocked threads, per thread of the parallelism, that the
+     * pool makes up for. Threads that block beyond that wait without another
+     * thread taking their place.
+     */
+    private static final int MAX_BLOCKED_THREADS_PER_THREAD = 4;
+
+    private final int parallelism;
+
+    private final boolean virtualThreads;
+
+    private final Semaphore permits;
+
+    /**
+     * Whether the current thread holds one of the {@link #permits}.
+     */
+    private final ThreadLocal<Boolean> holdsPermit = new ThreadLocal<Boolean>() {
+        @Override
+        protected Boolean initialValue() {
+            return false;
+        }
+    };
+
+    private final ResourceLockTable lockTable = new ResourceLockTable();
+
+    /**
+     * The grants of the children that enclose the code running on the current
+     * thread.
+     */
+    private final ThreadLocal<List<ResourceLockTable.Grant>> heldLocks =
+            new ThreadLocal<List<ResourceLockTable.Grant>>() {
+                @Override
+                protected List<ResourceLockTable.Grant> initialValue() {
+                    return Collections.emptyList();
+                }
+            };
+
+    // Guarded by this
+    private ExecutorService executor;
+
+    // Guarded by this
+    private int activeSchedulers;
+
+    // Guarded by this
+    private int blockedThreads;
+
+    private final ManagedBlocking.Compensator compensator = new ManagedBlocking.Compensator() {
+        public boolean beginBlocking() {
+            if (!tryGrow()) {
+                return false;
+            }
+            if (permits != null) {
+                permits.release();
+            }
+            return true;
+        }
+
+        public void endBlocking() {
+            if (permits != null) {
+                permits.acquireUninterruptibly();
+            }
+            resize(-1);
+        }
+    };
+
+    SharedRunnerPool(int parallelism) {
+        this(parallelism, false);
+    }
+
+    /**
+     * Returns a pool that runs each child on its own virtual thread, but never
+     * more than {@code maxConcurrentTests} of them at a time. Falls back to
+     * {@code maxConcurrentTests} platform threads on JVMs without virtual
+     * threads.
+     */
+    static SharedRunnerPool withVirtualThreads(int maxConcurrentTests) {
+        return new SharedRunnerPool(maxConcurrentTests, true);
+    }
+
+    private SharedRunnerPool(int parallelism, boolean virtualThreads) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+        this.virtualThreads = virtualThreads;
+        permits = virtualThreads ? new Semaphore(parallelism) : null;
+    }
+
+    /**
+     * Returns a new scheduler for a single {@code ParentRunner}.
+     *
+     * @param concurrent {@code true} if the children should be handed to the
+     * pool, {@code false} if they should run one after another on the calling
+     * thread (the scheduler still keeps the pool alive until it has finished)
+     * @param childrenUsePool {@code true} if the children schedule their own
+     * children through this pool as well, {@code false} if each child runs
+     * its descendants itself and therefore takes their {@link ResourceLock}s
+     * @param order the order in which the children are started, or
+     * {@code null} to start them in the order they are scheduled. Ordered
+     * children are held back until the parent has scheduled all of them.
+     */
+    RunnerScheduler newScheduler(boolean concurrent, boolean childrenUsePool,
+            Comparator<Description> order) {
+        return new Scheduler(concurrent, childrenUsePool, order);
+    }
+
+    private synchronized void open() {
+        activeSchedulers++;
+    }
+
+    private synchronized void close() {
+        activeSchedulers--;
+        if (activeSchedulers == 0 && executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    private synchronized void submit(Runnable task) {
+        if (activeSchedulers == 0) {
+            // a child woken up after its parent has run it and finished
+            return;
+        }
+        if (executor == null) {
+            executor = createExecutor();
+        }
+        executor.execute(task);
+    }
+
+    private ExecutorService createExecutor() {
+        if (virtualThreads) {
+            ExecutorService virtualThreadExecutor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+            if (virtualThreadExecutor != null) {
+                return virtualThreadExecutor;
+            }
+        }
+        ExecutorService result = Executors.newFixedThreadPool(parallelism, new WorkerThreadFactory());
+        if (blockedThreads > 0) {
+            resize((ThreadPoolExecutor) result, parallelism + blockedThreads, true);
+        }
+        return result;
+    }
+
+    private synchronized boolean tryGrow() {
+        if (blockedThreads >= parallelism * MAX_BLOCKED_THREADS_PER_THREAD) {
+            return false;
+        }
+        resize(1);
+        return true;
+    }
+
+    private synchronized void resize(int delta) {
+        blockedThreads += delta;
+        if (executor instanceof ThreadPoolExecutor) {
+            resize((ThreadPoolExecutor) executor, parallelism + blockedThreads, delta > 0);
+        }
+    }
+
+    private static void resize(ThreadPoolExecutor executor, int size, boolean grow) {
+        // the core size must never exceed the maximum size
+        if (grow) {
+            executor.setMaximumPoolSize(size);
+            executor.setCorePoolSize(size);
+        } else {
+            executor.setCorePoolSize(size);
+            executor.setMaximumPoolSize(size);
+        }
+    }
+
+    private final class Scheduler implements RunnerScheduler {
+        private final boolean concurrent;
+
+        private final boolean childrenUsePool;
+
+        private final Comparator<Description> order;
+
+        // Children held back until all of them have been scheduled, if they
+        // are started in order
+        private final List<Runnable> heldBack = new ArrayList<Runnable>();
+
+        private final List<ChildTask> tasks = new ArrayList<ChildTask>();
+
+        // Children that were woken up after locks were released and have not
+        // been claimed yet. Guarded by this
+        private final Set<ChildTask> ready = new LinkedHashSet<ChildTask>();
+
+        private boolean opened = false;
+
+        Scheduler(boolean concurrent, boolean childrenUsePool, Comparator<Description> order) {
+            this.concurrent = concurrent;
+            this.childrenUsePool = childrenUsePool;
+            this.order = order;
+        }
+
+        public void schedule(Runnable childStatement) {
+            if (!opened) {
+                opened = true;
+                open();
+            }
+            if (order != null) {
+                heldBack.add(childStatement);
+            } else {
+                start(childStatement);
+            }
+        }
+
+        private void startInOrder() {
+            final List<Description> descriptions = new ArrayList<Description>(heldBack.size());
+            List<Integer> indexes = new ArrayList<Integer>(heldBack.size());
+            for (Runnable each : heldBack) {
+                indexes.add(descriptions.size());
+                descriptions.add(each instanceof Describable
+                        ? ((Describable) each).getDescription() : Description.EMPTY);
+            }
+            Collections.sort(indexes, new Comparator<Integer>() {
+                public int compare(Integer o1, Integer o2) {
+                    return order.compare(descriptions.get(o1), descriptions.get(o2));
+                }
+            });
+            List<Runnable> childStatements = new ArrayList<Runnable>(heldBack);
+            heldBack.clear();
+            for (int each : indexes) {
+                start(childStatements.get(each));
+            }
+        }
+
+        private void start(Runnable childStatement) {
+            ChildTask task = new ChildTask(this, childStatement, locksOf(childStatement),
+                    heldLocks.get());
+            if (concurrent) {
+                tasks.add(task);
+                submit(task);
+            } else {
+                task.tryRun();
+                boolean interrupted = awaitDone(task);
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                task.rethrowFailure();
+            }
+        }
+
+        private Map<String, Boolean> locksOf(Runnable childStatement) {
+            if (childStatement instanceof Describable) {
+                return ResourceLockTable.locksOf(
+                        ((Describable) childStatement).getDescription(), !childrenUsePool);
+            }
+            return Collections.emptyMap();
+        }
+
+        public void finished() {
+            if (!opened) {
+                return;
+            }
+            try {
+                if (order != null) {
+                    startInOrder();
+                }
+                joinAll();
+            } finally {
+                heldBack.clear();
+                tasks.clear();
+                opened = false;
+                close();
+            }
+        }
+
+        private void joinAll() {
+            boolean interrupted = false;
+            for (int i = tasks.size() - 1; i >= 0; i--) {
+                tasks.get(i).tryRun();
+            }
+            for (ChildTask each : tasks) {
+                interrupted |= awaitDone(each);
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            for (ChildTask each : tasks) {
+                each.rethrowFailure();
+            }
+        }
+
+        /**
+         * Waits until the given child has finished. Meanwhile, runs the
+         * children that got the locks they were waiting for, because the pool
+         * threads may all be busy waiting for children of their own.
+         *
+         * @return {@code true} if the calling thread was interrupted while waiting
+         */
+        private boolean awaitDone(ChildTask task) {
+            boolean interrupted = false;
+            while (true) {
+                ChildTask next;
+                synchronized (this) {
+                    while (!task.done && ready.isEmpty()) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                    }
+                    if (task.done) {
+                        return interrupted;
+                    }
+                    Iterator<ChildTask> iterator = ready.iterator();
+                    next = iterator.next();
+                    iterator.remove();
+                }
+                next.tryRun();
+            }
+        }
+
+        void wake(ChildTask task) {
+            if (task.claimed.get()) {
+                // woken up for an earlier attempt
+                return;
+            }
+            if (concurrent) {
+                submit(task);
+            }
+            synchronized (this) {
+                ready.add(task);
+                notifyAll();
+            }
+        }
+
+        synchronized void markClaimed(ChildTask task) {
+            ready.remove(task);
+        }
+
+        synchronized void markDone(ChildTask task) {
+            task.done = true;
+            notifyAll();
+        }
+    }
+
+    /**
+     * A child statement that is run exactly once, either by a pool thread or by
+     * the thread of the parent that waits for it. A child that cannot get its
+     * {@link ResourceLock}s does not run; it is tried again, by a pool thread
+     * and by its parent, after locks have been released.
+     */
+    private final class ChildTask implements Runnable, ResourceLockTable.Waiter {
+        private final Scheduler scheduler;
+
+        // Dropped once the child has run, so that the finished child can be
+        // garbage collected while its siblings still run
+        private volatile Runnable childStatement;
+
+        private final Map<String, Boolean> locks;
+
+        private final List<ResourceLockTable.Grant> inheritedLocks;
+
+        private final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+
+        // Guarded by scheduler
+        private boolean done = false;
+
+        // Set before the child is marked done
+        private Throwable failure = null;
+
+        ChildTask(Scheduler scheduler, Runnable childStatement, Map<String, Boolean> locks,
+                List<ResourceLockTable.Grant> inheritedLocks) {
+            this.scheduler = scheduler;
+            this.childStatement = childStatement;
+            this.locks = locks;
+            this.inheritedLocks = inheritedLocks;
+        }
+
+        public void run() {
+            tryRun();
+        }
+
+        /**
+         * Runs the child, unless it has already been claimed or cannot get
+         * its locks yet. A thread without a permit, such as a pool thread or
+         * the thread that started the run, gets one first.
+         */
+        void tryRun() {
+            if (permits == null || holdsPermit.get()) {
+                claimAndRun();
+            } else if (!claimed.get()) {
+                // Acquire the permit before claiming the child, so that a
+                // parent can still run it while this thread waits, and so that
+                // no thread waits for a permit while it holds locks.
+                permits.acquireUninterruptibly();
+                holdsPermit.set(true);
+                try {
+                    claimAndRun();
+                } finally {
+                    holdsPermit.set(false);
+                    permits.release();
+                }
+            }
+        }
+
+        private void claimAndRun() {
+            ResourceLockTable.Grant grant = null;
+            if (locks.isEmpty()) {
+                if (!claimed.compareAndSet(false, true)) {
+                    return;
+                }
+            } else {
+                grant = lockTable.tryClaim(claimed, locks, inheritedLocks, this);
+                if (grant == null) {
+                    return;
+                }
+                // only children with locks are ever woken up
+                scheduler.markClaimed(this);
+            }
+            List<ResourceLockTable.Grant> previousLocks = heldLocks.get();
+            heldLocks.set(grant == null ? inheritedLocks : append(inheritedLocks, grant));
+            Thread thread = Thread.currentThread();
+            ClassLoader previousClassLoader = thread.getContextClassLoader();
+            thread.setContextClassLoader(contextClassLoader);
+            ManagedBlocking.Compensator previousCompensator = ManagedBlocking.setCompensator(compensator);
+            try {
+                Runnable statement = childStatement;
+                childStatement = null;
+                statement.run();
+            } catch (Throwable e) {
+                // child statements report their failures through the
+                // RunNotifier; anything escaping them fails the parent,
+                // which finds it when it waits for the child
+                failure = e;
+            } finally {
+                ManagedBlocking.setCompensator(previousCompensator);
+                thread.setContextClassLoader(previousClassLoader);
+                heldLocks.set(previousLocks);
+                if (grant != null) {
+                    lockTable.release(grant);
+                }
+                scheduler.markDone(this);
+            }
+        }
+
+        public void wake() {
+            scheduler.wake(this);
+        }
+
+        /**
+         * Rethrows the throwable that escaped the child, on the thread of the
+         * parent. Must only be called once the child is done.
+         */
+        void rethrowFailure() {
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            } else if (failure instanceof Error) {
+                throw (Error) failure;
+            } else if (failure != null) {
+                throw new RuntimeException(failure);
+            }
+        }
+    }
+
+    private static List<ResourceLockTable.Grant> append(List<ResourceLockTable.Grant> grants,
+            ResourceLockTable.Grant grant) {
+        List<ResourceLockTable.Grant> result = new ArrayList<ResourceLockTable.Grant>(grants);
+        result.add(grant);
+        return result;
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        private final String namePrefix = "ParallelComputer-" + POOL_NUMBER.getAndIncrement() + "-worker-";
+
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.junit.experimental;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Reflective access to the virtual threads of the running JVM, if it has them.
+ */
+final class VirtualThreads {
+    private static final class Holder {
+        private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR;
+
+        static {
+            Method method = null;
+            try {
+                method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            } catch (NoSuchMethodException e) {
+                // do nothing, method will be null on failure
+            } catch (SecurityException e) {
+                // do nothing, method will be null on failure
+            }
+            NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = method;
+        }
+    }
+
+    /**
+     * Returns an {@link ExecutorService} that starts a new virtual thread for
+     * each task, or {@code null} if the JVM does not support virtual threads
+     * (or only as a disabled preview feature).
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (Holder.NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null) {
+            try {
+                return (ExecutorService) Holder.NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+            } catch (ClassCastException e) {
+                // fallthrough
+            } catch (IllegalAccessException e) {
+                // fallthrough
+            } catch (IllegalArgumentException e) {
+                // fallthrough
+            } catch (InvocationTargetException e) {
+                // fallthrough, e.g. UnsupportedOperationException for previews
+            }
+        }
+        return null;
+    }
+
+    private VirtualThreads() {
+    }
+}
@@ -2,6 +2,7 @@ package org.junit.experimental.categories;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -216,9 +217,50 @@ public class Categories extends Suite {
             return false;
         }
 
+        /**
+         * {@inheritDoc}
+         *
+         * <p>Looks at the categories of the class and of its public methods.
+         *
+         * @since 4.13.3
+         */
+        @Override
+        public boolean mayRunClass(Class<?> testClass) {
+            if (overridesShouldRun()) {
+                return true;
+            }
+            Set<Class<?>> classCategories= new HashSet<Class<?>>();
+            Collections.addAll(classCategories, directCategories(Description.createSuiteDescription(testClass)));
+            if (hasCorrectCategories(classCategories)) {
+                return true;
+            }
+            for (Method each : testClass.getMethods()) {
+                Category annotation= each.getAnnotation(Category.class);
+                if (annotation != null) {
+                    Set<Class<?>> methodCategories= new HashSet<Class<?>>(classCategories);
+                    Collections.addAll(methodCategories, annotation.value());
+                    if (hasCorrectCategories(methodCategories)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean overridesShouldRun() {
+            try {
+                return getClass().getMethod("shouldRun", Description.class).getDeclaringClass()
+                        != CategoryFilter.class;
+            } catch (NoSuchMethodException e) {
+                return true;
+            }
+        }
+
         private boolean hasCorrectCategoryAnnotation(Description description) {
-            final Set<Class<?>> childCategories= categories(description);
+            return hasCorrectCategories(categories(description));
+        }
 
+        private boolean hasCorrectCategories(Set<Class<?>> childCategories) {
             // If a child has no categories, immediately return.
             if (childCategories.isEmpty()) {
                 return included.isEmpty();
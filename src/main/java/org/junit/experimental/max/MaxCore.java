@@ -3,7 +3,11 @@ package org.junit.experimental.max;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import junit.framework.TestSuite;
 import org.junit.internal.requests.SortingRequest;
@@ -14,6 +18,7 @@ import org.junit.runner.JUnitCore;
 import org.junit.runner.Request;
 import org.junit.runner.Result;
 import org.junit.runner.Runner;
+import org.junit.runner.notification.RunNotifier;
 import org.junit.runners.Suite;
 import org.junit.runners.model.InitializationError;
 
@@ -28,6 +33,8 @@ import org.junit.runners.model.InitializationError;
  * <li> Sort groups such that the most recent failure date is first, and never-failing tests are at the end.
  * <li> Within a group, run the fastest tests first.
  * </ol>
+ *
+ * A run can also be time-boxed, see {@link #timeBoxedRequest(Request, long, TimeUnit)}.
  */
 public class MaxCore {
     private static final String MALFORMED_JUNIT_3_TEST_CLASS_PREFIX = "malformed JUnit 3 test class: ";
@@ -89,6 +96,162 @@ public class MaxCore {
         return core.run(sortRequest(request).getRunner());
     }
 
+    /**
+     * Run the tests contained in <code>request</code> that are most likely to
+     * find failures within the given wall-clock budget, as described in
+     * {@link #timeBoxedRequest(Request, long, TimeUnit)}.
+     *
+     * @param request the request describing tests
+     * @param budget the time that the run may take
+     * @param unit the unit of {@code budget}
+     * @return a {@link Result} describing the details of the test run and the
+     *         failed tests. Tests that did not fit the budget are counted as ignored.
+     * @since 4.13.3
+     */
+    public Result run(Request request, long budget, TimeUnit unit) {
+        return run(request, new JUnitCore(), budget, unit);
+    }
+
+    /**
+     * Run the tests contained in <code>request</code> that are most likely to
+     * find failures within the given wall-clock budget, as described in
+     * {@link #timeBoxedRequest(Request, long, TimeUnit)}.
+     *
+     * This variant should be used if {@code core} has attached listeners that this
+     * run should notify.
+     *
+     * @param request the request describing tests
+     * @param core a JUnitCore to delegate to.
+     * @param budget the time that the run may take
+     * @param unit the unit of {@code budget}
+     * @return a {@link Result} describing the details of the test run and the
+     *         failed tests. Tests that did not fit the budget are counted as ignored.
+     * @since 4.13.3
+     */
+    public Result run(Request request, JUnitCore core, long budget, TimeUnit unit) {
+        core.addListener(history.listener());
+        return core.run(timeBoxedRequest(request, budget, unit).getRunner());
+    }
+
+    /**
+     * Returns a new Request, which runs the tests of <code>request</code> that
+     * are expected to find the most failures within the given wall-clock
+     * budget.
+     *
+     * <p>Each test is ranked by the number of failures it is expected to find
+     * per second, based on the history of previous runs: never-run tests are
+     * assumed to fail, a test that failed recently is more likely to fail again
+     * than one that failed long ago or never, and cheap tests are preferred
+     * over expensive ones. Tests are picked in that order as long as their
+     * expected durations fit the budget, and are run most valuable first.
+     *
+     * <p>The other tests are reported as ignored. Because durations are only
+     * estimates, a test that would start after the budget has been used up is
+     * reported as ignored, too; a test that is already running is not
+     * interrupted.
+     *
+     * @param request the request describing tests
+     * @param budget the time that the run may take
+     * @param unit the unit of {@code budget}
+     * @since 4.13.3
+     */
+    public Request timeBoxedRequest(Request request, long budget, TimeUnit unit) {
+        List<Description> leaves = findLeaves(request);
+        final Map<Description, Double> values = new HashMap<Description, Double>();
+        long now = System.currentTimeMillis();
+        for (Description each : leaves) {
+            values.put(each, history.expectedFailuresPerSecond(each, now));
+        }
+        Collections.sort(leaves, new Comparator<Description>() {
+            public int compare(Description o1, Description o2) {
+                return values.get(o2).compareTo(values.get(o1));
+            }
+        });
+
+        final long budgetNanos = unit.toNanos(budget);
+        long remaining = budgetNanos;
+        final List<Runner> runners = new ArrayList<Runner>();
+        List<Runner> skipped = new ArrayList<Runner>();
+        for (Description each : leaves) {
+            long duration = history.estimatedDuration(each);
+            if (duration <= remaining) {
+                remaining -= duration;
+                runners.add(buildRunner(each));
+            } else {
+                skipped.add(new SkippedTestRunner(each));
+            }
+        }
+        runners.addAll(skipped);
+        return new Request() {
+            @Override
+            public Runner getRunner() {
+                try {
+                    return new TimeBoxedSuite(runners, budgetNanos);
+                } catch (InitializationError e) {
+                    return new ErrorReportingRunner(null, e);
+                }
+            }
+        };
+    }
+
+    /**
+     * A suite of single tests that reports all tests that would start after
+     * its budget has been used up as ignored.
+     */
+    private static class TimeBoxedSuite extends Suite {
+        private final long budgetNanos;
+
+        private long deadline;
+
+        TimeBoxedSuite(List<Runner> runners, long budgetNanos) throws InitializationError {
+            super((Class<?>) null, runners);
+            this.budgetNanos = budgetNanos;
+        }
+
+        @Override
+        public void run(RunNotifier notifier) {
+            deadline = System.nanoTime() + budgetNanos;
+            super.run(notifier);
+        }
+
+        @Override
+        protected void runChild(Runner runner, RunNotifier notifier) {
+            if (System.nanoTime() - deadline >= 0) {
+                fireTestsIgnored(runner.getDescription(), notifier);
+            } else {
+                super.runChild(runner, notifier);
+            }
+        }
+    }
+
+    private static class SkippedTestRunner extends Runner {
+        private final Description description;
+
+        SkippedTestRunner(Description description) {
+            this.description = description;
+        }
+
+        @Override
+        public Description getDescription() {
+            return description;
+        }
+
+        @Override
+        public void run(RunNotifier notifier) {
+            fireTestsIgnored(description, notifier);
+        }
+    }
+
+    private static void fireTestsIgnored(Description description, RunNotifier notifier) {
+        if (description.getChildren().isEmpty()) {
+            notifier.fireTestIgnored(description);
+        } else {
+            for (Description each : description.getChildren()) {
+                fireTestsIgnored(each, notifier);
+            }
+        }
+    }
+
     /**
      * @return a new Request, which contains all of the same tests, but in a new order.
      */
@@ -26,6 +26,15 @@ import org.junit.runner.notification.RunListener;
 public class MaxHistory implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    /*
+     * A test that failed is assumed to fail again with a probability that
+     * halves with every day that passed since its last failure, but never
+     * drops below that of a test that has never failed.
+     */
+    private static final long FAILURE_HALF_LIFE_MILLIS = 24L * 60L * 60L * 1000L;
+
+    private static final double NEVER_FAILED_PROBABILITY = 0.01;
+
     /**
      * Loads a {@link MaxHistory} from {@code file}, or generates a new one that
      * will be saved to {@code file}.
@@ -106,6 +115,38 @@ public class MaxHistory implements Serializable {
         fDurations.put(description.toString(), duration);
     }
 
+    /**
+     * Returns the expected duration of the given test in nanoseconds. A test
+     * without a recorded duration is expected to take as long as the average
+     * recorded test.
+     */
+    long estimatedDuration(Description test) {
+        Long duration = getTestDuration(test);
+        return duration == null ? averageDuration() : Math.max(1L, duration);
+    }
+
+    /**
+     * Returns the number of failures that running the given test is expected
+     * to find per second of run time. Tests that have never been run are
+     * assumed to fail; tests that failed recently are more likely to fail
+     * again than tests that failed long ago or never.
+     *
+     * @param now the current time, as returned by {@link System#currentTimeMillis()}
+     */
+    double expectedFailuresPerSecond(Description test, long now) {
+        double probability;
+        Long failure = getFailureTimestamp(test);
+        if (isNewTest(test)) {
+            probability = 1.0;
+        } else if (failure == null) {
+            probability = NEVER_FAILED_PROBABILITY;
+        } else {
+            double halfLives = Math.max(0L, now - failure) / (double) FAILURE_HALF_LIFE_MILLIS;
+            probability = Math.max(NEVER_FAILED_PROBABILITY, Math.pow(0.5, halfLives));
+        }
+        return probability * 1e9 / estimatedDuration(test);
+    }
+
     private final class RememberingListener extends RunListener {
         private long overallStart = System.currentTimeMillis();
 
@@ -160,6 +201,48 @@ public class MaxHistory implements Serializable {
         }
     }
 
+    private class LongestFirstComparator implements Comparator<Description> {
+        private final Map<Description, Long> estimates = new HashMap<Description, Long>();
+
+        private final long defaultDuration = averageDuration();
+
+        public int compare(Description o1, Description o2) {
+            return getEstimatedDuration(o2).compareTo(getEstimatedDuration(o1));
+        }
+
+        private Long getEstimatedDuration(Description description) {
+            Long result = estimates.get(description);
+            if (result == null) {
+                result = estimateDuration(description);
+                estimates.put(description, result);
+            }
+            return result;
+        }
+
+        private long estimateDuration(Description description) {
+            if (description.isTest()) {
+                Long duration = getTestDuration(description);
+                return duration == null ? defaultDuration : duration;
+            }
+            long sum = 0;
+            for (Description each : description.getChildren()) {
+                sum += estimateDuration(each);
+            }
+            return sum;
+        }
+    }
+
+    long averageDuration() {
+        if (fDurations.isEmpty()) {
+            return 1L; // without any history, suites are ranked by test count
+        }
+        long sum = 0;
+        for (Long each : fDurations.values()) {
+            sum += each;
+        }
+        return Math.max(1L, sum / fDurations.size());
+    }
+
     /**
      * @return a listener that will update this history based on the test
      *         results reported.
@@ -175,4 +258,21 @@ public class MaxHistory implements Serializable {
     public Comparator<Description> testComparator() {
         return new TestComparator();
     }
+
+    /**
+     * Returns a comparator that ranks tests and suites by their expected
+     * duration, longest first. The expected duration of a suite is the sum of
+     * the durations of its tests. A test without a recorded duration is
+     * expected to take as long as the average recorded test, so without any
+     * history suites are ranked by their number of tests.
+     *
+     * <p>Submitting the longest classes of a parallel run first keeps a single
+     * long class that happens to start last from deciding the wall-clock time
+     * of the whole run.
+     *
+     * @since 4.13.3
+     */
+    public Comparator<Description> longestFirstComparator() {
+        return new LongestFirstComparator();
+    }
 }
@@ -0,0 +1,185 @@
+package org.junit.experimental.max;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.runner.Description;
+import org.junit.runner.FilterFactory;
+import org.junit.runner.FilterFactoryParams;
+import org.junit.runner.manipulation.Filter;
+
+/**
+ * {@link FilterFactory} that splits a run into shards, so that the shards can
+ * be run by separate processes or machines. Every test is assigned to exactly
+ * one shard.
+ *
+ * <p>By default, a test is assigned by a hash of its {@link Description} that
+ * is the same in every JVM. If a {@link MaxHistory} file is given and exists,
+ * the tests are packed into the shards by their recorded durations instead
+ * (longest first, each into the shard with the least total duration so far), so
+ * that all shards finish at about the same time. All shards of a run must see
+ * the same history file and the same tests to agree on the assignment, which is
+ * why a history cannot be given together with {@code --workers}, whose workers
+ * filter one class at a time.
+ *
+ * Usage from command line (shards are numbered from 1):
+ * <code>
+ *     --filter=shard=2/8
+ *     --filter=shard=2/8,history=path/to/MaxCore.ser
+ * </code>
+ *
+ * @since 4.13.3
+ */
+public final class ShardFilterFactory implements FilterFactory {
+    private static final String HISTORY_PREFIX = "history=";
+
+    public Filter createFilter(FilterFactoryParams params) throws FilterNotCreatedException {
+        String[] args = params.getArgs().split(",", 2);
+        String[] shard = args[0].trim().split("/", 2);
+        int index;
+        int count;
+        try {
+            index = Integer.parseInt(shard[0].trim());
+            count = Integer.parseInt(shard[1].trim());
+        } catch (RuntimeException e) {
+            throw invalidArgs(params);
+        }
+        if (count < 1 || index < 1 || index > count) {
+            throw invalidArgs(params);
+        }
+        if (args.length == 1) {
+            return createFilter(index, count);
+        }
+        String history = args[1].trim();
+        if (!history.startsWith(HISTORY_PREFIX)) {
+            throw invalidArgs(params);
+        }
+        File historyFile = new File(history.substring(HISTORY_PREFIX.length()));
+        if (!historyFile.exists()) {
+            return createFilter(index, count);
+        }
+        return createFilter(index, count, MaxHistory.forFolder(historyFile),
+                params.getTopLevelDescription());
+    }
+
+    /**
+     * Creates a {@link Filter} that runs the tests of shard {@code index} of
+     * {@code count}, assigning each test by a stable hash.
+     *
+     * @param index the shard to run, from {@code 1} to {@code count}
+     * @param count the number of shards
+     */
+    public Filter createFilter(int index, int count) {
+        return new ShardFilter(index, count, Collections.<Description, Integer>emptyMap());
+    }
+
+    /**
+     * Creates a {@link Filter} that runs the tests of shard {@code index} of
+     * {@code count}, packing the tests of {@code topLevelDescription} into the
+     * shards by the durations recorded in {@code history}. Tests that are not
+     * part of {@code topLevelDescription} are assigned by a stable hash.
+     *
+     * @param index the shard to run, from {@code 1} to {@code count}
+     * @param count the number of shards
+     */
+    public Filter createFilter(int index, int count, MaxHistory history,
+            Description topLevelDescription) {
+        return new ShardFilter(index, count, packByDuration(count, history, topLevelDescription));
+    }
+
+    private static Map<Description, Integer> packByDuration(int count, final MaxHistory history,
+            Description topLevelDescription) {
+        List<Description> tests = new ArrayList<Description>();
+        collectTests(topLevelDescription, tests);
+        final long defaultDuration = history.averageDuration();
+        final Map<Description, Long> durations = new HashMap<Description, Long>();
+        for (Description each : tests) {
+            Long duration = history.getTestDuration(each);
+            durations.put(each, duration == null ? defaultDuration : duration);
+        }
+        Collections.sort(tests, new Comparator<Description>() {
+            public int compare(Description o1, Description o2) {
+                int result = durations.get(o2).compareTo(durations.get(o1));
+                return result != 0 ? result : o1.getDisplayName().compareTo(o2.getDisplayName());
+            }
+        });
+
+        long[] loads = new long[count];
+        Map<Description, Integer> shards = new HashMap<Description, Integer>();
+        for (Description each : tests) {
+            if (!shards.containsKey(each)) {
+                int shard = 0;
+                for (int i = 1; i < count; i++) {
+                    if (loads[i] < loads[shard]) {
+                        shard = i;
+                    }
+                }
+                loads[shard] += durations.get(each);
+                shards.put(each, shard);
+            }
+        }
+        return shards;
+    }
+
+    private static void collectTests(Description description, List<Description> tests) {
+        if (description.isTest()) {
+            tests.add(description);
+        } else {
+            for (Description each : description.getChildren()) {
+                collectTests(each, tests);
+            }
+        }
+    }
+
+    private static FilterNotCreatedException invalidArgs(FilterFactoryParams params) {
+        return new FilterNotCreatedException(new IllegalArgumentException(
+                "Expected shard=<index>/<count>[,history=<file>] with 1 <= index <= count, but got: "
+                        + params.getArgs()));
+    }
+
+    private static class ShardFilter extends Filter {
+        private final int index;
+
+        private final int count;
+
+        private final Map<Description, Integer> shards;
+
+        ShardFilter(int index, int count, Map<Description, Integer> shards) {
+            this.index = index;
+            this.count = count;
+            this.shards = shards;
+        }
+
+        @Override
+        public boolean shouldRun(Description description) {
+            if (description.isTest()) {
+                return shardOf(description) == index - 1;
+            }
+            for (Description each : description.getChildren()) {
+                if (shouldRun(each)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int shardOf(Description test) {
+            Integer shard = shards.get(test);
+            if (shard != null) {
+                return shard;
+            }
+            // String.hashCode() is specified, so every JVM agrees on it
+            return (test.getDisplayName().hashCode() & Integer.MAX_VALUE) % count;
+        }
+
+        @Override
+        public String describe() {
+            return "shard " + index + " of " + count;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package org.junit.internal;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The classes in a set of class folders together with the classes of these
+ * folders that each of them references. The references are read from the
+ * constant pools of the class files, without loading the classes.
+ *
+ * <p>Constants that the compiler inlines (static final fields of primitive
+ * or {@code String} type) leave no trace in the constant pool, so a class that
+ * only uses such a constant of another class does not depend on it here.
+ *
+ * <p>Instances are not thread-safe.
+ *
+ * @since 4.13.3
+ */
+public final class ClassDependencyGraph {
+    private static final int MAGIC = 0xCAFEBABE;
+
+    /**
+     * Matches the class names of field and method descriptors and signatures,
+     * like {@code Ljava/lang/String;} or {@code Ljava/util/List<}.
+     */
+    private static final Pattern TYPE_DESCRIPTOR = Pattern.compile("L([^;<>()\\[\\s.]+)[;<]");
+
+    private final List<File> folders;
+
+    private final Map<String, Set<String>> references = new HashMap<String, Set<String>>();
+
+    private final Map<String, Long> lastModified = new HashMap<String, Long>();
+
+    private ClassDependencyGraph(List<File> folders) {
+        this.folders = new ArrayList<File>(folders);
+    }
+
+    /**
+     * Reads the class files in {@code folders}, which are the roots of
+     * package hierarchies like the folders of a class path.
+     */
+    public static ClassDependencyGraph scan(Collection<File> folders) throws IOException {
+        ClassDependencyGraph graph = new ClassDependencyGraph(new ArrayList<File>(folders));
+        for (File each : folders) {
+            graph.scanFolder(each, "");
+        }
+        return graph;
+    }
+
+    private void scanFolder(File folder, String packagePrefix) throws IOException {
+        File[] files = folder.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File each : files) {
+            String name = each.getName();
+            if (each.isDirectory()) {
+                scanFolder(each, packagePrefix + name + ".");
+            } else if (name.endsWith(".class")) {
+                String className = packagePrefix + name.substring(0, name.length() - ".class".length());
+                if (!references.containsKey(className)) {
+                    references.put(className, readReferences(each));
+                    lastModified.put(className, each.lastModified());
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the class files of the given classes again, for example after
+     * they have been recompiled. Classes whose class files no longer exist are
+     * removed from the graph.
+     */
+    public void update(Collection<String> classNames) throws IOException {
+        for (String each : classNames) {
+            File classFile = findClassFile(each);
+            if (classFile == null) {
+                references.remove(each);
+                lastModified.remove(each);
+            } else {
+                references.put(each, readReferences(classFile));
+                lastModified.put(each, classFile.lastModified());
+            }
+        }
+    }
+
+    private File findClassFile(String className) {
+        String path = className.replace('.', File.separatorChar) + ".class";
+        for (File each : folders) {
+            File classFile = new File(each, path);
+            if (classFile.isFile()) {
+                return classFile;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the names of all classes in the graph.
+     */
+    public Set<String> getClassNames() {
+        return Collections.unmodifiableSet(references.keySet());
+    }
+
+    /**
+     * Returns the time at which the class file of the given class was last
+     * modified when it was read, or {@code 0} if the class is not in the
+     * graph.
+     */
+    public long getLastModified(String className) {
+        Long result = lastModified.get(className);
+        return result == null ? 0 : result;
+    }
+
+    /**
+     * Returns the names of the classes that the given class references
+     * directly, including classes that are not in the graph.
+     */
+    public Set<String> getReferencedClasses(String className) {
+        Set<String> result = references.get(className);
+        return result == null ? Collections.<String>emptySet() : Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * Returns the names of the classes of the graph that reference one of the
+     * given classes directly or through other classes of the graph, together
+     * with the given classes themselves.
+     */
+    public Set<String> getDependentClasses(Collection<String> classNames) {
+        Map<String, List<String>> referencedBy = new HashMap<String, List<String>>();
+        for (Map.Entry<String, Set<String>> each : references.entrySet()) {
+            for (String referenced : each.getValue()) {
+                List<String> dependents = referencedBy.get(referenced);
+                if (dependents == null) {
+                    dependents = new ArrayList<String>();
+                    referencedBy.put(referenced, dependents);
+                }
+                dependents.add(each.getKey());
+            }
+        }
+        Set<String> result = new HashSet<String>(classNames);
+        LinkedList<String> pending = new LinkedList<String>(classNames);
+        while (!pending.isEmpty()) {
+            List<String> dependents = referencedBy.get(pending.removeFirst());
+            if (dependents != null) {
+                for (String each : dependents) {
+                    if (result.add(each)) {
+                        pending.add(each);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> readReferences(File classFile) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(classFile));
+        try {
+            return readReferences(in);
+        } catch (IOException e) {
+            IOException exception = new IOException("Cannot read class file " + classFile);
+            exception.initCause(e);
+            throw exception;
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Returns the names of the classes that are referenced by the constant
+     * pool of the given class file, except for the class itself.
+     */
+    public static Set<String> readReferences(InputStream classFile) throws IOException {
+        DataInputStream in = new DataInputStream(classFile);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        in.readUnsignedShort(); // minor version
+        in.readUnsignedShort(); // major version
+        int count = in.readUnsignedShort();
+        String[] utf8 = new String[count];
+        int[] classNameIndexes = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1: // Utf8
+                    utf8[i] = in.readUTF();
+                    break;
+                case 7: // Class
+                    classNameIndexes[i] = in.readUnsignedShort();
+                    break;
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    in.readUnsignedShort();
+                    break;
+                case 15: // MethodHandle
+                    in.readUnsignedByte();
+                    in.readUnsignedShort();
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    in.readInt();
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    in.readLong();
+                    i++; // takes two entries
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+        in.readUnsignedShort(); // access flags
+        String thisClass = utf8[classNameIndexes[in.readUnsignedShort()]];
+
+        Set<String> result = new HashSet<String>();
+        for (int each : classNameIndexes) {
+            String name = utf8[each];
+            if (name != null && !name.startsWith("[")) {
+                result.add(name.replace('/', '.'));
+            }
+        }
+        // descriptors and signatures, also of annotations and array types
+        for (String each : utf8) {
+            if (each != null && each.indexOf('L') >= 0) {
+                Matcher matcher = TYPE_DESCRIPTOR.matcher(each);
+                while (matcher.find()) {
+                    result.add(matcher.group(1).replace('/', '.'));
+                }
+            }
+        }
+        result.remove(thisClass.replace('/', '.'));
+        return result;
+    }
+}
@@ -38,7 +38,24 @@ public class Classes {
      * @since 4.13
      */
     public static Class<?> getClass(String className, Class<?> callingClass) throws ClassNotFoundException {
+        return getClass(className, true, callingClass);
+    }
+
+    /**
+     * Returns Class.forName for {@code className} using the current thread's class loader.
+     * If the current thread does not have a class loader, falls back to the class loader for the
+     * passed-in class. The class is only initialized if {@code initialize} is {@code true};
+     * otherwise its static initializers run when it is first used.
+     *
+     * @param className Name of the class.
+     * @param initialize whether the class must be initialized
+     * @param callingClass Class that is requesting a the class
+     * @throws ClassNotFoundException
+     * @since 4.13.3
+     */
+    public static Class<?> getClass(String className, boolean initialize, Class<?> callingClass)
+            throws ClassNotFoundException {
         ClassLoader classLoader = currentThread().getContextClassLoader();
-        return Class.forName(className, true, classLoader == null ? callingClass.getClassLoader() : classLoader);
+        return Class.forName(className, initialize, classLoader == null ? callingClass.getClassLoader() : classLoader);
     }
 }
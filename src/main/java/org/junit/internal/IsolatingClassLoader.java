@@ -0,0 +1,187 @@
+package org.junit.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hamcrest.Matcher;
+import org.junit.runner.Runner;
+
+/**
+ * A class loader that loads the classes of the class path itself instead of
+ * asking its parent first, so that each instance has its own copy of the
+ * application classes and their static state.
+ *
+ * <p>The classes of the JDK, of JUnit and of Hamcrest are always loaded by the
+ * parent, so that annotations, assertions and runners are shared with the code
+ * that runs the tests. JUnit and Hamcrest are recognized by the jar or folder
+ * that they are loaded from, which also covers jars that are only referenced
+ * by the {@code Class-Path} of another jar's manifest.
+ *
+ * @since 4.13.3
+ */
+public final class IsolatingClassLoader extends URLClassLoader {
+    private static final String[] SHARED_PACKAGES = {
+            "java.", "javax.", "sun.", "com.sun.", "jdk.",
+            "org.w3c.", "org.xml.", "org.ietf.", "org.omg."
+    };
+
+    private static final Set<URI> SHARED_LOCATIONS = sharedLocations();
+
+    /**
+     * Creates a class loader with the class path of the given parent.
+     */
+    public IsolatingClassLoader(ClassLoader parent) {
+        super(classPath(parent), parent);
+    }
+
+    /**
+     * Creates a class loader that loads the classes found at {@code urls}
+     * itself and all other classes with the given parent.
+     */
+    public IsolatingClassLoader(URL[] urls, ClassLoader parent) {
+        super(urls, parent);
+    }
+
+    private static Set<URI> sharedLocations() {
+        Set<URI> locations = new HashSet<URI>();
+        addLocation(locations, Runner.class);
+        addLocation(locations, Matcher.class);
+        return locations;
+    }
+
+    /**
+     * Returns the class path of the given class loader.
+     */
+    public static URL[] classPath(ClassLoader loader) {
+        List<URL> result = new ArrayList<URL>();
+        if (loader instanceof URLClassLoader) {
+            return ((URLClassLoader) loader).getURLs();
+        }
+        // Since Java 9 the application class loader is not a URLClassLoader.
+        for (String each : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            if (each.length() > 0) {
+                try {
+                    result.add(new File(each).toURI().toURL());
+                } catch (MalformedURLException e) {
+                    // not a location that could be loaded from
+                }
+            }
+        }
+        return result.toArray(new URL[result.size()]);
+    }
+
+    /**
+     * Returns the folders among the given class path, whose classes are
+     * usually the ones that are compiled by the build of the project.
+     */
+    public static URL[] folders(URL[] classPath) {
+        List<URL> result = new ArrayList<URL>();
+        for (URL each : classPath) {
+            try {
+                if ("file".equals(each.getProtocol()) && new File(each.toURI()).isDirectory()) {
+                    result.add(each);
+                }
+            } catch (URISyntaxException e) {
+                // not a folder
+            } catch (IllegalArgumentException e) {
+                // not a folder
+            }
+        }
+        return result.toArray(new URL[result.size()]);
+    }
+
+    private static void addLocation(Set<URI> locations, Class<?> type) {
+        CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+        if (codeSource != null && codeSource.getLocation() != null) {
+            URI location = canonicalUri(codeSource.getLocation());
+            if (location != null) {
+                locations.add(location);
+            }
+        }
+    }
+
+    private static URI canonicalUri(URL url) {
+        try {
+            URI uri = url.toURI();
+            if ("file".equals(uri.getScheme())) {
+                return new File(uri).getCanonicalFile().toURI();
+            }
+            return uri;
+        } catch (URISyntaxException e) {
+            return null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    protected synchronized Class<?> loadClass(String name, boolean resolve)
+            throws ClassNotFoundException {
+        Class<?> result = findLoadedClass(name);
+        if (result == null) {
+            if (isShared(name) || isLoadedFromSharedLocation(name)) {
+                result = getParent().loadClass(name);
+            } else {
+                try {
+                    result = findClass(name);
+                } catch (ClassNotFoundException e) {
+                    result = getParent().loadClass(name);
+                }
+            }
+        }
+        if (resolve) {
+            resolveClass(result);
+        }
+        return result;
+    }
+
+    private static boolean isShared(String className) {
+        for (String each : SHARED_PACKAGES) {
+            if (className.startsWith(each)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isLoadedFromSharedLocation(String className) {
+        String path = className.replace('.', '/') + ".class";
+        URL resource = findResource(path);
+        if (resource == null) {
+            return true;
+        }
+        String url = resource.toExternalForm();
+        int separator = url.indexOf("!/");
+        String location;
+        if (url.startsWith("jar:") && separator > 0) {
+            location = url.substring("jar:".length(), separator);
+        } else if (url.endsWith(path)) {
+            location = url.substring(0, url.length() - path.length());
+        } else {
+            return false;
+        }
+        try {
+            return SHARED_LOCATIONS.contains(canonicalUri(new URL(location)));
+        } catch (MalformedURLException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public URL getResource(String name) {
+        URL result = findResource(name);
+        return result == null ? getParent().getResource(name) : result;
+    }
+}
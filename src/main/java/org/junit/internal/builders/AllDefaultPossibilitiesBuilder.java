@@ -1,8 +1,10 @@
 package org.junit.internal.builders;
 
+import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.List;
 
+import org.junit.runner.RunWith;
 import org.junit.runner.Runner;
 import org.junit.runners.model.RunnerBuilder;
 
@@ -42,6 +44,34 @@ public class AllDefaultPossibilitiesBuilder extends RunnerBuilder {
         return null;
     }
 
+    /**
+     * Returns {@code true} unless the test class is run by a custom runner
+     * that may build runners for other classes with this builder, like a
+     * {@link org.junit.runners.Suite} does. This builder still builds all
+     * runners eagerly; see {@link org.junit.runner.Computer#setLazyRunnerConstruction(boolean)}.
+     *
+     * @since 4.13.3
+     */
+    @Override
+    public boolean canBuildLazily(Class<?> testClass) {
+        if (testClass.isMemberClass() && !Modifier.isStatic(testClass.getModifiers())) {
+            // may be run with the runner of its enclosing class
+            return false;
+        }
+        RunWith annotation = testClass.getAnnotation(RunWith.class);
+        return annotation == null || !takesRunnerBuilder(annotation.value());
+    }
+
+    private static boolean takesRunnerBuilder(Class<? extends Runner> runnerClass) {
+        // see AnnotatedBuilder.buildRunner()
+        try {
+            runnerClass.getConstructor(Class.class);
+            return false;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
     protected JUnit4Builder junit4Builder() {
         return new JUnit4Builder();
     }
@@ -0,0 +1,168 @@
+package org.junit.internal.runners;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.internal.builders.SuiteMethodBuilder;
+import org.junit.runner.Description;
+import org.junit.runner.RunWith;
+import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.Filterable;
+import org.junit.runner.manipulation.InvalidOrderingException;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.manipulation.Orderable;
+import org.junit.runner.manipulation.Orderer;
+import org.junit.runner.manipulation.Sorter;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.Suite;
+import org.junit.runners.model.RunnerBuilder;
+
+/**
+ * A runner for a single test class that builds the actual runner only when it
+ * is first needed. A filter that rejects the class judging from the class
+ * alone (see {@link Filter#mayRunClass(Class)}) removes it without the runner
+ * ever being built.
+ *
+ * @see RunnerBuilder#canBuildLazily(Class)
+ * @since 4.13.3
+ */
+public class LazyRunner extends Runner implements Filterable, Orderable {
+    private final RunnerBuilder builder;
+
+    private final Class<?> testClass;
+
+    private volatile Runner runner;
+
+    public LazyRunner(RunnerBuilder builder, Class<?> testClass) {
+        this.builder = builder;
+        this.testClass = testClass;
+    }
+
+    /**
+     * Returns the test class.
+     */
+    public Class<?> getTestClass() {
+        return testClass;
+    }
+
+    /**
+     * Returns the runner for the test class, building it if needed.
+     */
+    public Runner getRunner() {
+        Runner result = runner;
+        if (result == null) {
+            synchronized (this) {
+                result = runner;
+                if (result == null) {
+                    result = builder.safeRunnerForClass(testClass);
+                    if (result == null) {
+                        result = Suite.emptySuite();
+                    }
+                    runner = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds the runners of the lazy runners among {@code runners} that have
+     * not been built yet, on up to {@code maxThreads} threads. Returns when all
+     * of them have been built, or when the current thread is interrupted; the
+     * remaining runners are then built when they are needed.
+     */
+    public static void buildInParallel(List<? extends Runner> runners, int maxThreads) {
+        List<Callable<Runner>> tasks = new ArrayList<Callable<Runner>>();
+        for (Runner each : runners) {
+            if (each instanceof LazyRunner && ((LazyRunner) each).runner == null) {
+                final LazyRunner lazyRunner = (LazyRunner) each;
+                tasks.add(new Callable<Runner>() {
+                    public Runner call() {
+                        return lazyRunner.getRunner();
+                    }
+                });
+            }
+        }
+        int threads = Math.min(tasks.size(), maxThreads);
+        if (threads < 2) {
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new BuilderThreadFactory());
+        try {
+            executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns {@code false} if {@code filter} removes all tests of the test
+     * class, judging from the class alone. This is only decided without
+     * building the runner for plain test classes, whose tests are described
+     * with the test class and the annotations of their methods. Classes with a
+     * {@link RunWith} annotation or a {@code suite()} method may have tests of
+     * any kind.
+     */
+    public boolean mayRun(Filter filter) {
+        return runner != null || !isPlainTestClass() || filter.mayRunClass(testClass);
+    }
+
+    private boolean isPlainTestClass() {
+        return testClass.getAnnotation(RunWith.class) == null
+                && (!testClass.isMemberClass() || Modifier.isStatic(testClass.getModifiers()))
+                && !new SuiteMethodBuilder().hasSuiteMethod(testClass);
+    }
+
+    @Override
+    public Description getDescription() {
+        return getRunner().getDescription();
+    }
+
+    @Override
+    public int testCount() {
+        return getRunner().testCount();
+    }
+
+    @Override
+    public void run(RunNotifier notifier) {
+        getRunner().run(notifier);
+    }
+
+    public void filter(Filter filter) throws NoTestsRemainException {
+        if (!mayRun(filter)) {
+            throw new NoTestsRemainException();
+        }
+        filter.apply(getRunner());
+    }
+
+    public void sort(Sorter sorter) {
+        sorter.apply(getRunner());
+    }
+
+    public void order(Orderer orderer) throws InvalidOrderingException {
+        orderer.apply(getRunner());
+    }
+
+    private static final class BuilderThreadFactory implements ThreadFactory {
+        private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        private final String namePrefix = "LazyRunner-" + POOL_NUMBER.getAndIncrement() + "-builder-";
+
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.junit.internal.runners.statements;
+
+/**
+ * The deadline of the innermost {@link org.junit.TimeBudget} that encloses the
+ * code running on the current thread, as a value of {@link System#nanoTime()}.
+ *
+ * <p>Code that hands a statement to another thread captures the deadline with
+ * {@link #current()} and re-establishes it on that thread with
+ * {@link #enter(Long)}.
+ */
+public final class Deadline {
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<Long>();
+
+    private Deadline() {
+    }
+
+    /**
+     * Returns the deadline for the current thread, or {@code null} if there is
+     * none.
+     */
+    public static Long current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Sets the deadline for the current thread.
+     *
+     * @param deadline the deadline, or {@code null} for none
+     * @return the previous deadline, to be passed to {@link #exit(Long)}
+     */
+    public static Long enter(Long deadline) {
+        Long previous = CURRENT.get();
+        CURRENT.set(deadline);
+        return previous;
+    }
+
+    /**
+     * Restores the deadline that was replaced by {@link #enter(Long)}.
+     */
+    public static void exit(Long previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Returns the earlier of the given deadline and the deadline for the
+     * current thread.
+     */
+    public static long earlierOf(long deadline) {
+        Long current = CURRENT.get();
+        return current != null && current - deadline < 0 ? current : deadline;
+    }
+
+    /**
+     * Returns the nanoseconds left until the deadline for the current thread,
+     * which may be negative, or {@link Long#MAX_VALUE} if there is none.
+     */
+    public static long remainingNanos() {
+        Long current = CURRENT.get();
+        return current == null ? Long.MAX_VALUE : current - System.nanoTime();
+    }
+}
@@ -3,12 +3,12 @@ package org.junit.internal.runners.statements;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.TimerTask;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
 import org.junit.internal.management.ManagementFactory;
 import org.junit.internal.management.ThreadMXBean;
@@ -17,6 +17,12 @@ import org.junit.runners.model.Statement;
 import org.junit.runners.model.TestTimedOutException;
 
 public class FailOnTimeout extends Statement {
+    /**
+     * Longer timeouts are treated as no timeout at all, which keeps the
+     * deadline computations clear of overflows.
+     */
+    private static final long MAX_TIMEOUT_NANOS = Long.MAX_VALUE / 4;
+
     private final Statement originalStatement;
     private final TimeUnit timeUnit;
     private final long timeout;
@@ -116,16 +122,32 @@ public class FailOnTimeout extends Statement {
         }
     }
 
+    /**
+     * Runs the statement on a new thread, so that no thread-local state is
+     * carried from one statement to the next. If stuck threads are looked
+     * for, the thread is started in a new {@link ThreadGroup}. The deadlines
+     * of all statements are enforced by a single timer thread.
+     *
+     * <p>Within a class that has an {@link org.junit.TimeBudget}, the timeout
+     * is limited to the budget that remains.
+     */
     @Override
     public void evaluate() throws Throwable {
-        CallableStatement callable = new CallableStatement();
-        FutureTask<Throwable> task = new FutureTask<Throwable>(callable);
-        ThreadGroup threadGroup = threadGroupForNewThread();
-        Thread thread = new Thread(threadGroup, task, "Time-limited test");
+        CallableStatement callable = new CallableStatement(Deadline.current());
+        TimeLimitedTask task = new TimeLimitedTask(callable);
+        Thread thread = new Thread(threadGroupForNewThread(), task, "Time-limited test");
         thread.setDaemon(true);
         thread.start();
         callable.awaitStarted();
-        Throwable throwable = getResult(task, thread);
+        long remainingNanos = Deadline.remainingNanos();
+        if (timeout > 0 && timeUnit.toNanos(timeout) <= remainingNanos) {
+            task.startDeadline(timeout, timeUnit);
+        } else if (remainingNanos != Long.MAX_VALUE) {
+            // round up, so that the time budget has surely been used up
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(remainingNanos + 999999);
+            task.startDeadline(Math.max(remainingMillis, 0), TimeUnit.MILLISECONDS);
+        }
+        Throwable throwable = getResult(task);
         if (throwable != null) {
             throw throwable;
         }
@@ -161,30 +183,23 @@ public class FailOnTimeout extends Statement {
      * test failed, an exception indicating a timeout if the test timed out, or
      * {@code null} if the test passed.
      */
-    private Throwable getResult(FutureTask<Throwable> task, Thread thread) {
+    private Throwable getResult(TimeLimitedTask task) {
         try {
-            if (timeout > 0) {
-                return task.get(timeout, timeUnit);
-            } else {
-                return task.get();
-            }
+            return task.get();
         } catch (InterruptedException e) {
             return e; // caller will re-throw; no need to call Thread.interrupt()
         } catch (ExecutionException e) {
             // test failed; have caller re-throw the exception thrown by the test
             return e.getCause();
-        } catch (TimeoutException e) {
-            return createTimeoutException(thread);
         }
     }
 
-    private Exception createTimeoutException(Thread thread) {
+    private Exception createTimeoutException(Thread thread, long timeout, TimeUnit timeUnit) {
         StackTraceElement[] stackTrace = thread.getStackTrace();
         final Thread stuckThread = lookForStuckThread ? getStuckThread(thread) : null;
         Exception currThreadException = new TestTimedOutException(timeout, timeUnit);
         if (stackTrace != null) {
             currThreadException.setStackTrace(stackTrace);
-            thread.interrupt();
         }
         if (stuckThread != null) {
             Exception stuckThreadException = 
@@ -290,10 +305,118 @@ public class FailOnTimeout extends Statement {
         return 0;
     }
 
+    /**
+     * The statement together with its deadline. When the deadline passes
+     * before the statement has finished, the watchdog completes the task with
+     * a {@link TestTimedOutException} and interrupts the thread of the
+     * statement.
+     */
+    private class TimeLimitedTask extends FutureTask<Throwable> {
+        // Guarded by this
+        private Thread thread;
+
+        // Guarded by this
+        private boolean finished = false;
+
+        // Guarded by this
+        private TimerTask watchdogTask;
+
+        // Guarded by this
+        private long deadlineNanos;
+
+        // Guarded by this
+        private long effectiveTimeout;
+
+        // Guarded by this
+        private TimeUnit effectiveTimeUnit;
+
+        TimeLimitedTask(CallableStatement callable) {
+            super(callable);
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                thread = Thread.currentThread();
+            }
+            try {
+                super.run();
+            } finally {
+                // From now on the thread only finishes up, so it must no
+                // longer be interrupted on behalf of the statement.
+                synchronized (this) {
+                    finished = true;
+                }
+            }
+        }
+
+        synchronized void startDeadline(long timeout, TimeUnit timeUnit) {
+            long timeoutNanos = timeUnit.toNanos(timeout);
+            if (isDone() || timeoutNanos > MAX_TIMEOUT_NANOS) {
+                return;
+            }
+            effectiveTimeout = timeout;
+            effectiveTimeUnit = timeUnit;
+            deadlineNanos = System.nanoTime() + timeoutNanos;
+            scheduleWatchdog(timeoutNanos);
+        }
+
+        // Guarded by this
+        private void scheduleWatchdog(long delayNanos) {
+            watchdogTask = new TimerTask() {
+                @Override
+                public void run() {
+                    try {
+                        timeOut();
+                    } catch (Throwable e) {
+                        // the watchdog must survive; the test keeps running
+                    }
+                }
+            };
+            // round up, the timer works with milliseconds
+            Watchdog.schedule(watchdogTask, TimeUnit.NANOSECONDS.toMillis(delayNanos + 999999));
+        }
+
+        private synchronized void timeOut() {
+            if (finished || isDone()) {
+                return;
+            }
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            if (remainingNanos > 0) {
+                // The timer's clock may be coarser than System.nanoTime(),
+                // but the test must never time out early.
+                scheduleWatchdog(remainingNanos);
+                return;
+            }
+            // Complete the task before interrupting the thread, whose reaction
+            // to the interrupt would otherwise become the result of the test.
+            set(createTimeoutException(thread, effectiveTimeout, effectiveTimeUnit));
+            thread.interrupt();
+        }
+
+        @Override
+        protected void done() {
+            TimerTask watchdogTaskToCancel;
+            synchronized (this) {
+                watchdogTaskToCancel = watchdogTask;
+            }
+            if (watchdogTaskToCancel != null) {
+                Watchdog.cancel(watchdogTaskToCancel);
+            }
+        }
+    }
+
     private class CallableStatement implements Callable<Throwable> {
         private final CountDownLatch startLatch = new CountDownLatch(1);
 
+        private final Long deadline;
+
+        CallableStatement(Long deadline) {
+            this.deadline = deadline;
+        }
+
         public Throwable call() throws Exception {
+            Long previousDeadline = Deadline.enter(deadline);
             try {
                 startLatch.countDown();
                 originalStatement.evaluate();
@@ -301,6 +424,8 @@ public class FailOnTimeout extends Statement {
                 throw e;
             } catch (Throwable e) {
                 return e;
+            } finally {
+                Deadline.exit(previousDeadline);
             }
             return null;
         }
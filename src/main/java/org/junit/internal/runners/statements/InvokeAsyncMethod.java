@@ -0,0 +1,208 @@
+package org.junit.internal.runners.statements;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.Statement;
+import org.junit.runners.model.TestTimedOutException;
+
+/**
+ * Invokes a test method that returns a {@link Future} or a
+ * {@code java.util.concurrent.CompletionStage} and completes when the returned
+ * value completes. The test fails with the exception that the value completed
+ * with, or with a {@link TestTimedOutException} if it did not complete within
+ * the timeout.
+ *
+ * <p>The thread waits without counting against the threads of the pool that
+ * runs the test, see {@link ManagedBlocking}.
+ *
+ * @since 4.13.3
+ */
+public class InvokeAsyncMethod extends Statement {
+    private final FrameworkMethod testMethod;
+    private final Object target;
+    private final long timeout;
+    private final TimeUnit timeUnit;
+
+    /**
+     * Creates a statement that waits for the result of {@code testMethod}
+     * without a time limit.
+     */
+    public InvokeAsyncMethod(FrameworkMethod testMethod, Object target) {
+        this(testMethod, target, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a statement that waits at most {@code timeout} for the result of
+     * {@code testMethod}. A timeout of zero means no time limit.
+     */
+    public InvokeAsyncMethod(FrameworkMethod testMethod, Object target,
+            long timeout, TimeUnit timeUnit) {
+        this.testMethod = testMethod;
+        this.target = target;
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+    }
+
+    /**
+     * Returns {@code true} if {@code method} returns a {@link Future} or a
+     * {@code java.util.concurrent.CompletionStage}.
+     */
+    public static boolean isAsync(FrameworkMethod method) {
+        Class<?> type = method.getReturnType();
+        return Future.class.isAssignableFrom(type) || CompletionStages.isCompletionStage(type);
+    }
+
+    @Override
+    public void evaluate() throws Throwable {
+        final Object result = testMethod.invokeExplosively(target);
+        if (result == null) {
+            throw new Exception("Method " + testMethod.getName()
+                    + "() should not return null");
+        }
+        final long timeoutNanos = timeLimitNanos();
+        ManagedBlocking.block(new ManagedBlocking.Blocker<Void>() {
+            public Void block() throws Throwable {
+                // Stages first: the minimal stages of CompletableFuture are
+                // Futures whose get() is not supported
+                if (result instanceof Future && !CompletionStages.isCompletionStage(result.getClass())) {
+                    awaitFuture((Future<?>) result, timeoutNanos);
+                } else {
+                    CompletionStages.await(result, timeoutNanos, InvokeAsyncMethod.this);
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Returns the time to wait in nanoseconds, or {@link Long#MAX_VALUE} for no
+     * limit. The timeout is limited to the time left until the deadline of an
+     * enclosing {@link org.junit.TimeBudget}.
+     */
+    private long timeLimitNanos() {
+        long limit = timeout > 0 ? timeUnit.toNanos(timeout) : Long.MAX_VALUE;
+        return Math.min(limit, Math.max(0L, Deadline.remainingNanos()));
+    }
+
+    private void awaitFuture(Future<?> future, long timeoutNanos) throws Throwable {
+        try {
+            if (timeoutNanos == Long.MAX_VALUE) {
+                future.get();
+            } else {
+                future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() == null ? e : e.getCause();
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw timedOut(timeoutNanos);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    TestTimedOutException timedOut(long timeoutNanos) {
+        if (timeout > 0 && timeUnit.toNanos(timeout) <= timeoutNanos) {
+            return new TestTimedOutException(timeout, timeUnit);
+        }
+        // cut short by the time budget
+        return new TestTimedOutException(
+                (timeoutNanos + 999999L) / 1000000L, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Access to {@code java.util.concurrent.CompletionStage}, which is only
+     * available since Java 8.
+     */
+    private static final class CompletionStages {
+        private static final Class<?> COMPLETION_STAGE = loadClass("java.util.concurrent.CompletionStage");
+
+        private static final Class<?> BI_CONSUMER = loadClass("java.util.function.BiConsumer");
+
+        private static final Class<?> COMPLETION_EXCEPTION = loadClass("java.util.concurrent.CompletionException");
+
+        private static Class<?> loadClass(String name) {
+            try {
+                return Class.forName(name);
+            } catch (ClassNotFoundException e) {
+                return null;
+            }
+        }
+
+        static boolean isCompletionStage(Class<?> type) {
+            return COMPLETION_STAGE != null && COMPLETION_STAGE.isAssignableFrom(type);
+        }
+
+        static void await(Object stage, long timeoutNanos, InvokeAsyncMethod statement)
+                throws Throwable {
+            if (!isCompletionStage(stage.getClass())) {
+                throw new Exception("Method " + statement.testMethod.getName()
+                        + "() should return a Future or a CompletionStage");
+            }
+            CompletionHandler handler = new CompletionHandler();
+            Object action = Proxy.newProxyInstance(CompletionStages.class.getClassLoader(),
+                    new Class<?>[] {BI_CONSUMER}, handler);
+            COMPLETION_STAGE.getMethod("whenComplete", BI_CONSUMER).invoke(stage, action);
+            boolean completed;
+            if (timeoutNanos == Long.MAX_VALUE) {
+                handler.done.await();
+                completed = true;
+            } else {
+                completed = handler.done.await(timeoutNanos, TimeUnit.NANOSECONDS);
+            }
+            if (!completed) {
+                if (stage instanceof Future) {
+                    try {
+                        ((Future<?>) stage).cancel(true);
+                    } catch (UnsupportedOperationException e) {
+                        // a minimal stage, which cannot be cancelled
+                    }
+                }
+                throw statement.timedOut(timeoutNanos);
+            }
+            Throwable failure = handler.failure;
+            if (failure != null && COMPLETION_EXCEPTION.isInstance(failure)
+                    && failure.getCause() != null) {
+                failure = failure.getCause();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Implements the {@code java.util.function.BiConsumer} that is passed to
+     * {@code CompletionStage.whenComplete()}.
+     */
+    private static final class CompletionHandler implements InvocationHandler {
+        final CountDownLatch done = new CountDownLatch(1);
+
+        volatile Throwable failure;
+
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            if (name.equals("accept") && args != null && args.length == 2) {
+                failure = (Throwable) args[1];
+                done.countDown();
+                return null;
+            } else if (name.equals("equals") && args != null && args.length == 1) {
+                return proxy == args[0];
+            } else if (name.equals("hashCode") && args == null) {
+                return System.identityHashCode(proxy);
+            } else if (name.equals("toString") && args == null) {
+                return "CompletionHandler";
+            }
+            throw new UnsupportedOperationException(name);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.junit.internal.runners.statements;
+
+/**
+ * Lets the thread pool that runs a test make up for a thread that blocks
+ * without using the CPU, for example while it waits for the result of an
+ * asynchronous test.
+ *
+ * <p>A pool installs its {@link Compensator} on the threads that run its tasks
+ * with {@link #setCompensator(Compensator)}. Code that is about to block calls
+ * {@link #block(Blocker)}, which lets the pool start another task while the
+ * current one waits.
+ */
+public final class ManagedBlocking {
+    /**
+     * Adjusts a pool to a thread that blocks.
+     */
+    public interface Compensator {
+        /**
+         * Called on the current thread before it blocks.
+         *
+         * @return {@code true} if the pool made up for the thread, in which
+         * case {@link #endBlocking()} is called after it stopped blocking
+         */
+        boolean beginBlocking();
+
+        /**
+         * Called on the current thread after it stopped blocking, if
+         * {@link #beginBlocking()} returned {@code true}.
+         */
+        void endBlocking();
+    }
+
+    /**
+     * An operation that blocks the current thread.
+     */
+    public interface Blocker<T> {
+        T block() throws Throwable;
+    }
+
+    private static final ThreadLocal<Compensator> COMPENSATOR = new ThreadLocal<Compensator>();
+
+    private ManagedBlocking() {
+    }
+
+    /**
+     * Sets the compensator for the current thread.
+     *
+     * @param compensator the compensator, or {@code null} for none
+     * @return the previous compensator, to be restored by the caller
+     */
+    public static Compensator setCompensator(Compensator compensator) {
+        Compensator previous = COMPENSATOR.get();
+        COMPENSATOR.set(compensator);
+        return previous;
+    }
+
+    /**
+     * Runs the given blocking operation and tells the compensator of the
+     * current thread, if any, while it blocks.
+     */
+    public static <T> T block(Blocker<T> blocker) throws Throwable {
+        Compensator compensator = COMPENSATOR.get();
+        if (compensator == null) {
+            return blocker.block();
+        }
+        if (!compensator.beginBlocking()) {
+            return blocker.block();
+        }
+        try {
+            return blocker.block();
+        } finally {
+            compensator.endBlocking();
+        }
+    }
+}
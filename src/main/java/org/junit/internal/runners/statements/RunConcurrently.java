@@ -0,0 +1,147 @@
+package org.junit.internal.runners.statements;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.internal.AssumptionViolatedException;
+import org.junit.runners.model.MultipleFailureException;
+import org.junit.runners.model.Statement;
+
+/**
+ * Evaluates a statement on several threads at once, several times in a row.
+ * In each repetition the threads are released together by a barrier. The
+ * failures of all threads are collected into a {@link MultipleFailureException},
+ * unless all of them are violated assumptions, in which case one of those is
+ * thrown, so that the test is skipped.
+ *
+ * @see org.junit.Concurrent
+ * @since 4.13.3
+ */
+public class RunConcurrently extends Statement {
+    private final Statement next;
+    private final String name;
+    private final int threads;
+    private final int repetitions;
+    private final PrintStream out;
+
+    private final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+    private final AtomicLong invocations = new AtomicLong();
+    private final CyclicBarrier barrier;
+
+    // Written by the barrier action, which happens-before the threads pass the barrier
+    private volatile boolean stopped = false;
+
+    /**
+     * Creates a statement that evaluates {@code next} {@code repetitions}
+     * times on each of {@code threads} threads and reports the throughput
+     * under the given name to {@code out}, unless {@code out} is {@code null}.
+     */
+    public RunConcurrently(Statement next, String name, int threads, int repetitions,
+            PrintStream out) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        if (repetitions < 1) {
+            throw new IllegalArgumentException("repetitions must be positive");
+        }
+        this.next = next;
+        this.name = name;
+        this.threads = threads;
+        this.repetitions = repetitions;
+        this.out = out;
+        barrier = new CyclicBarrier(threads, new Runnable() {
+            public void run() {
+                // stop the threads together, before the next repetition
+                stopped = !errors.isEmpty();
+            }
+        });
+    }
+
+    @Override
+    public void evaluate() throws Throwable {
+        List<Thread> workers = new ArrayList<Thread>(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(new Worker(), name + "-concurrent-" + (i + 1));
+            worker.setDaemon(true);
+            workers.add(worker);
+        }
+        long start = System.nanoTime();
+        for (Thread each : workers) {
+            each.start();
+        }
+        try {
+            for (Thread each : workers) {
+                each.join();
+            }
+        } catch (InterruptedException e) {
+            for (Thread each : workers) {
+                each.interrupt();
+            }
+            joinUninterruptibly(workers);
+            throw e;
+        }
+        long elapsed = Math.max(1L, System.nanoTime() - start);
+        if (out != null) {
+            out.println(String.format("%s: %d invocations on %d threads in %d ms (%.0f invocations/s)",
+                    name, invocations.get(), threads, elapsed / 1000000L,
+                    invocations.get() * 1e9 / elapsed));
+        }
+        if (!errors.isEmpty() && allAssumptionViolations()) {
+            throw errors.get(0);
+        }
+        MultipleFailureException.assertEmpty(errors);
+    }
+
+    private boolean allAssumptionViolations() {
+        for (Throwable each : errors) {
+            if (!(each instanceof AssumptionViolatedException)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void joinUninterruptibly(List<Thread> workers) {
+        boolean interrupted = false;
+        for (Thread each : workers) {
+            while (each.isAlive()) {
+                try {
+                    each.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private final class Worker implements Runnable {
+        public void run() {
+            for (int i = 0; i < repetitions; i++) {
+                try {
+                    barrier.await();
+                } catch (InterruptedException e) {
+                    return;
+                } catch (BrokenBarrierException e) {
+                    return;
+                }
+                if (stopped) {
+                    return;
+                }
+                try {
+                    next.evaluate();
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+                invocations.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.junit.internal.runners.statements;
+
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * The single timer thread that enforces the deadlines of all
+ * {@link FailOnTimeout} statements.
+ */
+final class Watchdog {
+    /**
+     * The number of cancelled deadlines after which they are removed from the
+     * timer's queue. Most deadlines are cancelled, because most tests finish in
+     * time.
+     */
+    private static final int PURGE_INTERVAL = 1000;
+
+    // Guarded by Watchdog.class
+    private static Timer timer;
+
+    // Guarded by Watchdog.class
+    private static int cancelledSincePurge = 0;
+
+    private Watchdog() {
+    }
+
+    /**
+     * Runs {@code task} after {@code delayMillis}. The task must not throw an
+     * exception, which would stop the timer.
+     */
+    static synchronized void schedule(TimerTask task, long delayMillis) {
+        if (timer == null) {
+            timer = new Timer("FailOnTimeout-watchdog", true);
+        }
+        timer.schedule(task, delayMillis);
+    }
+
+    static synchronized void cancel(TimerTask task) {
+        if (task.cancel() && ++cancelledSincePurge == PURGE_INTERVAL) {
+            cancelledSincePurge = 0;
+            timer.purge();
+        }
+    }
+}
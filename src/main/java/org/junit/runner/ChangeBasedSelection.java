@@ -0,0 +1,163 @@
+package org.junit.runner;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import org.junit.internal.ClassDependencyGraph;
+import org.junit.internal.Classes;
+import org.junit.runner.notification.RunListener;
+
+/**
+ * Selects the test classes that may be affected by a change, so that a build
+ * only needs to run these instead of all tests.
+ *
+ * <p>The class files in the given class folders are read without loading any
+ * classes, and the classes that each of them references are taken from their
+ * constant pools. A test class is selected if it references a changed class,
+ * directly or through other classes of the folders. Constants that the
+ * compiler inlines into other classes are not seen as references, see
+ * {@link ClassDependencyGraph}.
+ *
+ * <p>The changed classes can be given by name, or found by comparing the
+ * modification times of the class files with a state file that is saved when
+ * a run succeeds:
+ *
+ * <pre>
+ * ChangeBasedSelection selection = ChangeBasedSelection.scan(classFolders);
+ * Set&lt;String&gt; changedClasses = selection.getClassesChangedSince(stateFile);
+ * JUnitCore core = new JUnitCore();
+ * core.addListener(selection.createStateRecorder(stateFile));
+ * core.run(selection.createRequest(new Computer(), testClassNames, changedClasses));
+ * </pre>
+ *
+ * @since 4.13.3
+ */
+public final class ChangeBasedSelection {
+    private final ClassDependencyGraph graph;
+
+    private ChangeBasedSelection(ClassDependencyGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Reads the class files in {@code classFolders}, which are the roots of
+     * package hierarchies like the folders of a class path.
+     */
+    public static ChangeBasedSelection scan(Collection<File> classFolders) throws IOException {
+        return new ChangeBasedSelection(ClassDependencyGraph.scan(classFolders));
+    }
+
+    /**
+     * Returns the names of the classes whose class files have been added,
+     * changed or deleted since {@link #saveState(File)} wrote
+     * {@code stateFile}. If there is no such file, all classes count as
+     * changed.
+     */
+    public Set<String> getClassesChangedSince(File stateFile) throws IOException {
+        Properties state = new Properties();
+        InputStream in;
+        try {
+            in = new FileInputStream(stateFile);
+        } catch (FileNotFoundException e) {
+            return new HashSet<String>(graph.getClassNames());
+        }
+        try {
+            state.load(in);
+        } finally {
+            in.close();
+        }
+        Set<String> result = new HashSet<String>();
+        for (String each : graph.getClassNames()) {
+            if (!String.valueOf(graph.getLastModified(each)).equals(state.getProperty(each))) {
+                result.add(each);
+            }
+        }
+        for (Object each : state.keySet()) {
+            if (!graph.getClassNames().contains(each)) {
+                result.add((String) each);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes the modification times that the class files had when they were
+     * read to {@code stateFile}.
+     */
+    public void saveState(File stateFile) throws IOException {
+        Properties state = new Properties();
+        for (String each : graph.getClassNames()) {
+            state.setProperty(each, String.valueOf(graph.getLastModified(each)));
+        }
+        OutputStream out = new FileOutputStream(stateFile);
+        try {
+            state.store(out, "Class files of the last successful run");
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Returns a listener that {@link #saveState(File) saves the state} to
+     * {@code stateFile} when a run has finished without failures. After a
+     * failed run, the state stays as it was, so that the next selection
+     * includes the tests of this run again.
+     */
+    public RunListener createStateRecorder(final File stateFile) {
+        return new RunListener() {
+            @Override
+            public void testRunFinished(Result result) throws IOException {
+                if (result.wasSuccessful()) {
+                    saveState(stateFile);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns the names of the test classes among {@code testClassNames}
+     * that reference one of {@code changedClassNames}, directly or through
+     * other classes, in their original order. Test classes that are not in
+     * the class folders are always selected, because their references are
+     * unknown.
+     */
+    public List<String> selectTestClasses(List<String> testClassNames,
+            Collection<String> changedClassNames) {
+        Set<String> dependentClasses = graph.getDependentClasses(changedClassNames);
+        List<String> result = new ArrayList<String>();
+        for (String each : testClassNames) {
+            if (dependentClasses.contains(each) || !graph.getClassNames().contains(each)) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a request for the {@link #selectTestClasses(List, Collection)
+     * selected} test classes. Only these classes are loaded, with the class
+     * loader of the current thread, and none of them is initialized.
+     *
+     * @throws ClassNotFoundException if a selected class cannot be found
+     */
+    public Request createRequest(Computer computer, List<String> testClassNames,
+            Collection<String> changedClassNames) throws ClassNotFoundException {
+        List<String> selected = selectTestClasses(testClassNames, changedClassNames);
+        Class<?>[] classes = new Class<?>[selected.size()];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = Classes.getClass(selected.get(i), false, ChangeBasedSelection.class);
+        }
+        return Request.classes(computer, classes);
+    }
+}
@@ -0,0 +1,254 @@
+package org.junit.runner;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runners.Suite;
+
+/**
+ * A file to which the outcome of each test is appended as soon as the test
+ * has finished, so that a run that was killed can be resumed without running
+ * the tests again that have already passed.
+ *
+ * <p>Each line holds the outcome ({@code passed}, {@code failed},
+ * {@code skipped} or {@code ignored}), the run time in milliseconds and the
+ * display name of a test, separated by tabs. Each line is forced to the
+ * storage device before the next test is recorded. When a run is resumed, the
+ * last outcome of each test counts.
+ *
+ * <p>Tests that run in {@link ForkedWorkerPool forked workers} are recorded,
+ * but not skipped when the run is resumed, because the workers cannot be
+ * filtered from here.
+ *
+ * @see JUnitCore#setCheckpoint(File)
+ */
+class Checkpoint {
+    private static final String PASSED = "passed";
+
+    private static final String FAILED = "failed";
+
+    private static final String SKIPPED = "skipped";
+
+    private static final String IGNORED = "ignored";
+
+    private final File file;
+
+    private final ConcurrentMap<String, Long> skippedTests = new ConcurrentHashMap<String, Long>();
+
+    Checkpoint(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Removes the tests from {@code runner} that passed according to the
+     * checkpoint, and returns the runner for the remaining tests.
+     */
+    Runner skipPassedTests(Runner runner) throws IOException {
+        final Map<String, Long> passedTests = readPassedTests();
+        Filter filter = new Filter() {
+            @Override
+            public boolean shouldRun(Description description) {
+                if (description.isTest()) {
+                    Long runTime = passedTests.get(description.getDisplayName());
+                    if (runTime == null) {
+                        return true;
+                    }
+                    skippedTests.put(description.getDisplayName(), runTime);
+                    return false;
+                }
+                for (Description each : description.getChildren()) {
+                    if (shouldRun(each)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public String describe() {
+                return "tests that have not passed according to " + file;
+            }
+        };
+        try {
+            filter.apply(runner);
+            return runner;
+        } catch (NoTestsRemainException e) {
+            return Suite.emptySuite();
+        }
+    }
+
+    private Map<String, Long> readPassedTests() throws IOException {
+        Map<String, Long> passedTests = new HashMap<String, Long>();
+        BufferedReader reader;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        } catch (FileNotFoundException e) {
+            return passedTests;
+        }
+        try {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] fields = line.split("\t", 3);
+                if (fields.length == 3) {
+                    String displayName = unescape(fields[2]);
+                    if (fields[0].equals(PASSED)) {
+                        passedTests.put(displayName, parseRunTime(fields[1]));
+                    } else {
+                        passedTests.remove(displayName);
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return passedTests;
+    }
+
+    private static long parseRunTime(String runTime) {
+        try {
+            return Long.parseLong(runTime);
+        } catch (NumberFormatException e) {
+            // a line that was cut off when the run was killed
+            return 0;
+        }
+    }
+
+    /**
+     * Adds the tests that were skipped because they passed before to
+     * {@code result}, as if they had run again.
+     */
+    void addSkippedTestsTo(Result result) {
+        long runTime = 0;
+        for (long each : skippedTests.values()) {
+            runTime += each;
+        }
+        result.addEarlierRun(skippedTests.size(), runTime);
+    }
+
+    /**
+     * Returns a listener that appends the outcome of each test to the
+     * checkpoint.
+     */
+    RunListener createListener() {
+        return new Recorder();
+    }
+
+    private static String escape(String displayName) {
+        StringBuilder builder = new StringBuilder(displayName.length());
+        for (int i = 0; i < displayName.length(); i++) {
+            char c = displayName.charAt(i);
+            switch (c) {
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                default:
+                    builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String unescape(String escaped) {
+        StringBuilder builder = new StringBuilder(escaped.length());
+        for (int i = 0; i < escaped.length(); i++) {
+            char c = escaped.charAt(i);
+            if (c == '\\' && i + 1 < escaped.length()) {
+                char next = escaped.charAt(++i);
+                builder.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    @RunListener.ThreadSafe
+    private final class Recorder extends RunListener {
+        private final ConcurrentMap<Description, Long> startTimes =
+                new ConcurrentHashMap<Description, Long>();
+
+        private final ConcurrentMap<Description, String> outcomes =
+                new ConcurrentHashMap<Description, String>();
+
+        // Guarded by this
+        private FileOutputStream out;
+
+        // Guarded by this
+        private Writer writer;
+
+        @Override
+        public synchronized void testRunStarted(Description description) throws IOException {
+            out = new FileOutputStream(file, true);
+            writer = new OutputStreamWriter(out, "UTF-8");
+        }
+
+        @Override
+        public synchronized void testRunFinished(Result result) throws IOException {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+        }
+
+        @Override
+        public void testStarted(Description description) {
+            startTimes.put(description, System.currentTimeMillis());
+        }
+
+        @Override
+        public void testFailure(Failure failure) {
+            outcomes.put(failure.getDescription(), FAILED);
+        }
+
+        @Override
+        public void testAssumptionFailure(Failure failure) {
+            outcomes.putIfAbsent(failure.getDescription(), SKIPPED);
+        }
+
+        @Override
+        public void testIgnored(Description description) throws IOException {
+            record(IGNORED, 0, description);
+        }
+
+        @Override
+        public void testFinished(Description description) throws IOException {
+            Long startTime = startTimes.remove(description);
+            long runTime = startTime == null ? 0 : System.currentTimeMillis() - startTime;
+            String outcome = outcomes.remove(description);
+            record(outcome == null ? PASSED : outcome, runTime, description);
+        }
+
+        private synchronized void record(String outcome, long runTime, Description description)
+                throws IOException {
+            if (writer == null) {
+                return;
+            }
+            writer.write(outcome + "\t" + runTime + "\t" + escape(description.getDisplayName()) + "\n");
+            writer.flush();
+            out.getFD().sync();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package org.junit.runner;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Starts the JVMs of a {@link ForkedWorkerPool} with an application
+ * class-data sharing (AppCDS) archive, so that they load the classes of the
+ * JDK and of the jars on the class path from a memory-mapped archive instead
+ * of from the jars.
+ *
+ * <p>If the archive does not exist yet, the worker JVMs record the classes
+ * that they load into class lists, and {@link #createArchive()} merges the
+ * lists into a class list next to the archive and dumps the archive from it.
+ * This uses the options {@code -XX:DumpLoadedClassList},
+ * {@code -XX:SharedClassListFile}, {@code -Xshare:dump} and
+ * {@code -XX:SharedArchiveFile} of OpenJDK 10 and later.
+ *
+ * <p>The JVM only archives classes from jars, and only uses an archive if the
+ * class path starts with the class path the archive was dumped with. The
+ * workers therefore get the jars of the class path first, followed by its
+ * folders. A JVM that cannot use the archive, for example because a jar has
+ * changed since, silently runs without it.
+ */
+class ClassDataSharing {
+    private final File archive;
+
+    private final boolean recording;
+
+    private final List<File> classLists = Collections.synchronizedList(new ArrayList<File>());
+
+    /**
+     * Creates a class-data sharing with the given archive, which is recorded
+     * if it does not exist yet.
+     */
+    ClassDataSharing(File archive) {
+        this.archive = archive;
+        this.recording = !archive.exists();
+    }
+
+    /**
+     * Returns {@code true} if the worker JVMs record the classes for a new
+     * archive, and {@code false} if they use the existing archive.
+     */
+    boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Returns the class list from which {@code archive} is dumped.
+     */
+    static File classList(File archive) {
+        return new File(archive.getPath() + ".classlist");
+    }
+
+    /**
+     * Returns the options for starting another worker JVM.
+     */
+    List<String> jvmOptions() throws IOException {
+        List<String> options = new ArrayList<String>();
+        if (recording) {
+            File classList = File.createTempFile("junit", ".classlist");
+            classLists.add(classList);
+            options.add("-XX:DumpLoadedClassList=" + classList.getAbsolutePath());
+        } else {
+            options.add("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+        }
+        options.add("-cp");
+        options.add(join(workerClassPath()));
+        return options;
+    }
+
+    /**
+     * Returns the class path of this JVM with its jars first.
+     */
+    static List<String> workerClassPath() {
+        List<String> jars = new ArrayList<String>();
+        List<String> others = new ArrayList<String>();
+        for (String each : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            if (each.length() > 0) {
+                (new File(each).isFile() ? jars : others).add(each);
+            }
+        }
+        jars.addAll(others);
+        return jars;
+    }
+
+    /**
+     * Merges the class lists recorded by the worker JVMs that have exited and
+     * dumps the archive from them.
+     */
+    void createArchive() throws IOException {
+        File classList = classList(archive);
+        List<File> recordedLists;
+        synchronized (classLists) {
+            recordedLists = new ArrayList<File>(classLists);
+        }
+        try {
+            mergeClassLists(recordedLists, classList);
+        } finally {
+            for (File each : recordedLists) {
+                each.delete();
+            }
+        }
+        List<String> jars = new ArrayList<String>();
+        for (String each : workerClassPath()) {
+            if (new File(each).isFile()) {
+                jars.add(each);
+            }
+        }
+        List<String> command = new ArrayList<String>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add("-Xshare:dump");
+        command.add("-XX:SharedClassListFile=" + classList.getAbsolutePath());
+        command.add("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+        if (!jars.isEmpty()) {
+            command.add("-cp");
+            command.add(join(jars));
+        }
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        process.getOutputStream().close();
+        String output = readFully(process.getInputStream());
+        int exitValue;
+        try {
+            exitValue = process.waitFor();
+        } catch (InterruptedException e) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while creating class-data sharing archive " + archive);
+        }
+        if (exitValue != 0 || !archive.isFile()) {
+            throw new IOException("Cannot create class-data sharing archive " + archive
+                    + " (exit status " + exitValue + "):\n" + output);
+        }
+    }
+
+    private static void mergeClassLists(List<File> recordedLists, File classList) throws IOException {
+        Set<String> lines = new LinkedHashSet<String>();
+        for (File each : recordedLists) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(each), "UTF-8"));
+            try {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    lines.add(line);
+                }
+            } finally {
+                reader.close();
+            }
+        }
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(
+                new FileOutputStream(classList), "UTF-8"));
+        try {
+            for (String each : lines) {
+                writer.println(each);
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static String readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        try {
+            for (int count = in.read(buffer); count != -1; count = in.read(buffer)) {
+                out.write(buffer, 0, count);
+            }
+        } finally {
+            in.close();
+        }
+        return out.toString();
+    }
+
+    private static String join(List<String> classPath) {
+        StringBuilder builder = new StringBuilder();
+        for (String each : classPath) {
+            if (builder.length() > 0) {
+                builder.append(File.pathSeparator);
+            }
+            builder.append(each);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,122 @@
+package org.junit.runner;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Watches class folders for class files that are added, changed or deleted.
+ * The folders are polled, because a build usually writes many class files in
+ * a row: changes are only reported once the folders have not changed for one
+ * polling interval.
+ */
+class ClassFileWatcher {
+    private final List<File> folders;
+
+    private final long pollingIntervalMillis;
+
+    private Map<String, Stamp> stamps;
+
+    /**
+     * Creates a watcher for the class files that are currently in
+     * {@code folders}.
+     */
+    ClassFileWatcher(List<File> folders, long pollingIntervalMillis) {
+        this.folders = new ArrayList<File>(folders);
+        this.pollingIntervalMillis = pollingIntervalMillis;
+        this.stamps = takeStamps();
+    }
+
+    /**
+     * Waits until class files have been added, changed or deleted and
+     * returns the names of their classes.
+     */
+    Set<String> awaitChanges() throws InterruptedException {
+        while (true) {
+            Thread.sleep(pollingIntervalMillis);
+            Map<String, Stamp> current = takeStamps();
+            if (!current.equals(stamps)) {
+                Map<String, Stamp> previous;
+                do {
+                    previous = current;
+                    Thread.sleep(pollingIntervalMillis);
+                    current = takeStamps();
+                } while (!current.equals(previous));
+                Set<String> changed = changedClasses(stamps, current);
+                stamps = current;
+                if (!changed.isEmpty()) {
+                    return changed;
+                }
+            }
+        }
+    }
+
+    private static Set<String> changedClasses(Map<String, Stamp> before, Map<String, Stamp> after) {
+        Set<String> result = new HashSet<String>();
+        for (Map.Entry<String, Stamp> each : after.entrySet()) {
+            if (!each.getValue().equals(before.get(each.getKey()))) {
+                result.add(each.getKey());
+            }
+        }
+        for (String each : before.keySet()) {
+            if (!after.containsKey(each)) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+
+    private Map<String, Stamp> takeStamps() {
+        Map<String, Stamp> result = new HashMap<String, Stamp>();
+        // the first folder wins, as it does on the class path
+        for (int i = folders.size() - 1; i >= 0; i--) {
+            addStamps(result, folders.get(i), "");
+        }
+        return result;
+    }
+
+    private static void addStamps(Map<String, Stamp> stamps, File folder, String packagePrefix) {
+        File[] files = folder.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File each : files) {
+            String name = each.getName();
+            if (each.isDirectory()) {
+                addStamps(stamps, each, packagePrefix + name + ".");
+            } else if (name.endsWith(".class")) {
+                String className = packagePrefix + name.substring(0, name.length() - ".class".length());
+                stamps.put(className, new Stamp(each.lastModified(), each.length()));
+            }
+        }
+    }
+
+    private static final class Stamp {
+        private final long lastModified;
+
+        private final long length;
+
+        Stamp(long lastModified, long length) {
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Stamp)) {
+                return false;
+            }
+            Stamp that = (Stamp) obj;
+            return lastModified == that.lastModified && length == that.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (lastModified ^ (lastModified >>> 32)) * 31 + (int) length;
+        }
+    }
+}
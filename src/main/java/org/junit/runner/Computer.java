@@ -1,5 +1,9 @@
 package org.junit.runner;
 
+import java.util.List;
+
+import org.junit.internal.runners.LazyRunner;
+import org.junit.runners.PipelinedSuite;
 import org.junit.runners.Suite;
 import org.junit.runners.model.InitializationError;
 import org.junit.runners.model.RunnerBuilder;
@@ -19,6 +23,46 @@ public class Computer {
         return new Computer();
     }
 
+    private volatile boolean lazyRunnerConstruction = false;
+
+    private volatile boolean parallelRunnerConstruction = false;
+
+    /**
+     * Specifies whether {@link #getSuite(RunnerBuilder, Class[])} builds the
+     * runners for the classes only when the suite first needs them. Filters
+     * that can reject a class judging from the class alone then drop it
+     * without its runner ever being built. Errors in a test class are reported
+     * when its runner is built, which may be after the run started. Runners
+     * that build runners for other classes, like {@link Suite}, are always
+     * built with the suite.
+     *
+     * <p>By default, all runners are built and validated with the suite.
+     *
+     * @since 4.13.3
+     */
+    public void setLazyRunnerConstruction(boolean lazyRunnerConstruction) {
+        this.lazyRunnerConstruction = lazyRunnerConstruction;
+    }
+
+    /**
+     * Specifies whether {@link #getSuite(RunnerBuilder, Class[])} builds and
+     * validates the runners for the classes on all available processors. This
+     * implies {@link #setLazyRunnerConstruction(boolean) lazy construction}:
+     * the runners are built when the suite first needs them, after filters
+     * that can reject classes without their runners have been applied, and the
+     * suite keeps the classes in the order given. Runners that build runners
+     * for other classes, like {@link Suite}, are still built one after another.
+     *
+     * <p>Enable this only if the runners of the test classes can be built
+     * concurrently, for example if their {@code Parameterized.Parameters}
+     * methods do not share state.
+     *
+     * @since 4.13.3
+     */
+    public void setParallelRunnerConstruction(boolean parallelRunnerConstruction) {
+        this.parallelRunnerConstruction = parallelRunnerConstruction;
+    }
+
     /**
      * Create a suite for {@code classes}, building Runners with {@code builder}.
      * Throws an InitializationError if Runner construction fails
@@ -30,7 +74,27 @@ public class Computer {
             public Runner runnerForClass(Class<?> testClass) throws Throwable {
                 return getRunner(builder, testClass);
             }
+
+            @Override
+            public boolean canBuildLazily(Class<?> testClass) {
+                return builder.canBuildLazily(testClass);
+            }
+
+            @Override
+            protected boolean buildsRunnersLazily() {
+                return lazyRunnerConstruction || parallelRunnerConstruction;
+            }
         }, classes) {
+            @Override
+            protected List<Runner> getChildren() {
+                List<Runner> children = super.getChildren();
+                if (parallelRunnerConstruction) {
+                    LazyRunner.buildInParallel(children,
+                            Runtime.getRuntime().availableProcessors());
+                }
+                return children;
+            }
+
             @Override
             protected String getName() {
                 /*
@@ -43,6 +107,24 @@ public class Computer {
         };
     }
 
+    /**
+     * Create a suite for {@code classes} that starts running the first classes
+     * while the runners for the later ones are still being built with
+     * {@code builder}. Runners that cannot be built are reported as failures
+     * when it is their turn to run.
+     *
+     * @see PipelinedSuite
+     * @since 4.13.3
+     */
+    public Runner getPipelinedSuite(final RunnerBuilder builder, Class<?>[] classes) {
+        return new PipelinedSuite(new RunnerBuilder() {
+            @Override
+            public Runner runnerForClass(Class<?> testClass) throws Throwable {
+                return getRunner(builder, testClass);
+            }
+        }, classes);
+    }
+
     /**
      * Create a single-class runner for {@code testClass}, using {@code builder}
      */
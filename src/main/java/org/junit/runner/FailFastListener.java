@@ -0,0 +1,68 @@
+package org.junit.runner;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+
+/**
+ * Stops a run at its first failure. No further tests are started, and the
+ * threads of tests that are still running (for example on the workers of a
+ * {@link org.junit.experimental.ParallelComputer}) are interrupted. Only the
+ * {@link FailFastNotifier} of the run is stopped, not the {@link JUnitCore}.
+ *
+ * @see JUnitCore#setFailFast(boolean)
+ */
+@RunListener.ThreadSafe
+class FailFastListener extends RunListener {
+    private final FailFastNotifier notifier;
+
+    private final Result result;
+
+    // Guarded by this
+    private final Map<Thread, Description> runningTests = new HashMap<Thread, Description>();
+
+    // Guarded by this
+    private boolean stopped = false;
+
+    FailFastListener(FailFastNotifier notifier, Result result) {
+        this.notifier = notifier;
+        this.result = result;
+    }
+
+    /**
+     * Returns {@code true} if this listener has stopped the run.
+     */
+    synchronized boolean hasStopped() {
+        return stopped;
+    }
+
+    @Override
+    public synchronized void testStarted(Description description) {
+        runningTests.put(Thread.currentThread(), description);
+    }
+
+    @Override
+    public synchronized void testFinished(Description description) {
+        // Removed under the same lock that testFailure() holds while it
+        // interrupts, so that a thread is never interrupted after its test.
+        runningTests.remove(Thread.currentThread());
+    }
+
+    @Override
+    public synchronized void testFailure(Failure failure) {
+        if (stopped) {
+            return;
+        }
+        stopped = true;
+        notifier.stop();
+        for (Map.Entry<Thread, Description> each : runningTests.entrySet()) {
+            if (each.getKey() != Thread.currentThread()
+                    && !each.getValue().equals(failure.getDescription())) {
+                result.cancel(each.getValue());
+                each.getKey().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.junit.runner;
+
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runner.notification.StoppedByUserException;
+
+/**
+ * The {@link RunNotifier} of a single fail-fast run. It forwards all events to
+ * the notifier of the {@link JUnitCore}, but can be {@link #stop() stopped}
+ * on its own, so that stopping the run at its first failure does not stop
+ * later runs of the same {@code JUnitCore}.
+ *
+ * @see FailFastListener
+ */
+class FailFastNotifier extends RunNotifier {
+    private final RunNotifier delegate;
+
+    private volatile boolean stopped = false;
+
+    FailFastNotifier(RunNotifier delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Starts no further tests of this run.
+     */
+    void stop() {
+        stopped = true;
+    }
+
+    @Override
+    public void addListener(RunListener listener) {
+        delegate.addListener(listener);
+    }
+
+    @Override
+    public void removeListener(RunListener listener) {
+        delegate.removeListener(listener);
+    }
+
+    @Override
+    public void addFirstListener(RunListener listener) {
+        delegate.addFirstListener(listener);
+    }
+
+    @Override
+    public void fireTestRunStarted(Description description) {
+        delegate.fireTestRunStarted(description);
+    }
+
+    @Override
+    public void fireTestRunFinished(Result result) {
+        delegate.fireTestRunFinished(result);
+    }
+
+    @Override
+    public void fireTestSuiteStarted(Description description) {
+        delegate.fireTestSuiteStarted(description);
+    }
+
+    @Override
+    public void fireTestSuiteFinished(Description description) {
+        delegate.fireTestSuiteFinished(description);
+    }
+
+    @Override
+    public void fireTestStarted(Description description) throws StoppedByUserException {
+        if (stopped) {
+            throw new StoppedByUserException();
+        }
+        delegate.fireTestStarted(description);
+    }
+
+    @Override
+    public void fireTestFailure(Failure failure) {
+        delegate.fireTestFailure(failure);
+    }
+
+    @Override
+    public void fireTestAssumptionFailed(Failure failure) {
+        delegate.fireTestAssumptionFailed(failure);
+    }
+
+    @Override
+    public void fireTestIgnored(Description description) {
+        delegate.fireTestIgnored(description);
+    }
+
+    @Override
+    public void fireTestFinished(Description description) {
+        delegate.fireTestFinished(description);
+    }
+
+    @Override
+    public void pleaseStop() {
+        delegate.pleaseStop();
+    }
+}
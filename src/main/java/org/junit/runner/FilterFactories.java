@@ -1,5 +1,9 @@
 package org.junit.runner;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.junit.internal.Classes;
 import org.junit.runner.FilterFactory.FilterNotCreatedException;
 import org.junit.runner.manipulation.Filter;
@@ -8,11 +12,23 @@ import org.junit.runner.manipulation.Filter;
  * Utility class whose methods create a {@link FilterFactory}.
  */
 class FilterFactories {
+    /**
+     * Short names of the filter factories that come with JUnit.
+     */
+    private static final Map<String, String> BUILT_IN_FILTER_FACTORIES;
+
+    static {
+        Map<String, String> factories = new HashMap<String, String>();
+        factories.put("shard", "org.junit.experimental.max.ShardFilterFactory");
+        BUILT_IN_FILTER_FACTORIES = Collections.unmodifiableMap(factories);
+    }
+
     /**
      * Creates a {@link Filter}.
      *
      * A filter specification is of the form "package.of.FilterFactory=args-to-filter-factory" or
-     * "package.of.FilterFactory".
+     * "package.of.FilterFactory". Instead of a class name, the filter factories that come with
+     * JUnit can be named by their short name, e.g. "shard=2/8".
      *
      * @param request the request that will be filtered
      * @param filterSpec the filter specification
@@ -20,7 +36,6 @@ class FilterFactories {
      */
     public static Filter createFilterFromFilterSpec(Request request, String filterSpec)
             throws FilterFactory.FilterNotCreatedException {
-        Description topLevelDescription = request.getRunner().getDescription();
         String[] tuple;
 
         if (filterSpec.contains("=")) {
@@ -29,7 +44,7 @@ class FilterFactories {
             tuple = new String[]{ filterSpec, "" };
         }
 
-        return createFilter(tuple[0], new FilterFactoryParams(topLevelDescription, tuple[1]));
+        return createFilter(tuple[0], new FilterFactoryParams(request, tuple[1]));
     }
 
     /**
@@ -62,6 +77,10 @@ class FilterFactories {
     static FilterFactory createFilterFactory(String filterFactoryFqcn) throws FilterNotCreatedException {
         Class<? extends FilterFactory> filterFactoryClass;
 
+        String builtInFilterFactory = BUILT_IN_FILTER_FACTORIES.get(filterFactoryFqcn);
+        if (builtInFilterFactory != null) {
+            filterFactoryFqcn = builtInFilterFactory;
+        }
         try {
             filterFactoryClass = Classes.getClass(filterFactoryFqcn).asSubclass(FilterFactory.class);
         } catch (Exception e) {
@@ -1,7 +1,8 @@
 package org.junit.runner;
 
 public final class FilterFactoryParams {
-    private final Description topLevelDescription;
+    private final Request request;
+    private volatile Description topLevelDescription;
     private final String args;
 
     public FilterFactoryParams(Description topLevelDescription, String args) {
@@ -9,15 +10,33 @@ public final class FilterFactoryParams {
             throw new NullPointerException();
         }
 
+        this.request = null;
         this.topLevelDescription = topLevelDescription;
         this.args = args;
     }
 
+    /**
+     * Creates parameters whose top-level description is only computed when a
+     * filter factory asks for it, because that builds the runners of all
+     * classes of the request.
+     */
+    FilterFactoryParams(Request request, String args) {
+        if (args == null || request == null) {
+            throw new NullPointerException();
+        }
+
+        this.request = request;
+        this.args = args;
+    }
+
     public String getArgs() {
         return args;
     }
 
     public Description getTopLevelDescription() {
+        if (topLevelDescription == null) {
+            topLevelDescription = request.getRunner().getDescription();
+        }
         return topLevelDescription;
     }
 }
@@ -0,0 +1,277 @@
+package org.junit.runner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.List;
+
+import org.junit.internal.Classes;
+import org.junit.runner.FilterFactory.FilterNotCreatedException;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+
+/**
+ * The main class of a child JVM started by {@link ForkedWorkerPool}.
+ *
+ * <p>The worker connects to the parent on the local port given as its first
+ * argument; the remaining arguments are {@code --filter} options. It then
+ * reads the names of test classes, runs them one after another with those
+ * filters applied and streams the {@link RunListener} events back to the
+ * parent. A class name prefixed with {@link #DESCRIBE} asks for the
+ * {@link Description} of the filtered class instead, which is sent unless the
+ * filters remove all of its tests. An empty class name tells the worker to
+ * exit.
+ *
+ * <p>Each event is written as its type followed by the length and the bytes of
+ * its serialized {@link Description} or {@link Failure}. {@link JUnitDaemon}
+ * uses the same format.
+ */
+class ForkedWorker {
+    static final int TEST_SUITE_STARTED = 1;
+    static final int TEST_SUITE_FINISHED = 2;
+    static final int TEST_STARTED = 3;
+    static final int TEST_FINISHED = 4;
+    static final int TEST_FAILURE = 5;
+    static final int TEST_ASSUMPTION_FAILURE = 6;
+    static final int TEST_IGNORED = 7;
+    static final int CLASS_FINISHED = 8;
+    static final int OUTPUT = 9;
+    static final int ERROR_OUTPUT = 10;
+    static final int RUN_FINISHED = 11;
+    static final int DESCRIPTION = 12;
+
+    static final String DESCRIBE = "?";
+
+    public static void main(String... args) throws IOException {
+        Socket socket = new Socket(InetAddress.getByName(null), Integer.parseInt(args[0]));
+        try {
+            DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(socket.getOutputStream()));
+            String[] options = new String[args.length - 1];
+            System.arraycopy(args, 1, options, 0, options.length);
+            new ForkedWorker(out, JUnitCommandLineParseResult.parse(options).getFilterSpecs())
+                    .serve(in);
+        } finally {
+            socket.close();
+        }
+        System.exit(0);
+    }
+
+    private final StreamingListener listener;
+
+    private final List<String> filterSpecs;
+
+    private ForkedWorker(DataOutputStream out, List<String> filterSpecs) {
+        this.listener = new StreamingListener(out);
+        this.filterSpecs = filterSpecs;
+    }
+
+    private void serve(DataInputStream in) throws IOException {
+        String className = in.readUTF();
+        while (className.length() != 0) {
+            if (className.startsWith(DESCRIBE)) {
+                describeClass(className.substring(DESCRIBE.length()));
+            } else {
+                runClass(className);
+            }
+            listener.writeEvent(CLASS_FINISHED, new byte[0]);
+            className = in.readUTF();
+        }
+    }
+
+    private void describeClass(String className) throws IOException {
+        Runner runner = createRunner(className);
+        if (runner != null) {
+            listener.writeEvent(DESCRIPTION, runner.getDescription());
+        }
+    }
+
+    private void runClass(String className) {
+        Runner runner = createRunner(className);
+        if (runner != null) {
+            JUnitCore core = new JUnitCore();
+            core.addListener(listener);
+            core.run(runner);
+        }
+    }
+
+    /**
+     * Returns the filtered runner for {@code className}, or {@code null} if
+     * the filters remove all of its tests.
+     */
+    private Runner createRunner(String className) {
+        Runner runner;
+        try {
+            runner = Request.aClass(Classes.getClass(className)).getRunner();
+            for (String filterSpec : filterSpecs) {
+                Filter filter = FilterFactories.createFilterFromFilterSpec(
+                        Request.runner(runner), filterSpec);
+                filter.apply(runner);
+            }
+        } catch (NoTestsRemainException e) {
+            // The filters remove every test of this class, which is fine as
+            // long as other classes of the run have tests left.
+            return null;
+        } catch (ClassNotFoundException e) {
+            runner = Request.errorReport(JUnitCommandLineParseResult.class, e).getRunner();
+        } catch (FilterNotCreatedException e) {
+            runner = Request.errorReport(JUnitCommandLineParseResult.class, e).getRunner();
+        }
+        return runner;
+    }
+
+    /**
+     * Returns a serializable copy of {@code throwable} with the same message
+     * and stack trace, for exceptions that reference non-serializable objects.
+     */
+    private static Throwable portableCopy(Throwable throwable) {
+        Exception copy = new Exception(throwable.toString());
+        copy.setStackTrace(throwable.getStackTrace());
+        if (throwable.getCause() != null) {
+            copy.initCause(portableCopy(throwable.getCause()));
+        }
+        return copy;
+    }
+
+    static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream stream = new ObjectOutputStream(bytes);
+        stream.writeObject(object);
+        stream.close();
+        return bytes.toByteArray();
+    }
+
+    static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes));
+        try {
+            return stream.readObject();
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Reads the payload of an event written by a {@link StreamingListener}
+     * and fires it on {@code notifier}.
+     */
+    static void fireEvent(int type, byte[] payload, RunNotifier notifier) throws IOException {
+        Object event;
+        try {
+            event = deserialize(payload);
+        } catch (ClassNotFoundException e) {
+            notifier.fireTestFailure(new Failure(Description.TEST_MECHANISM, e));
+            return;
+        }
+        switch (type) {
+            case TEST_SUITE_STARTED:
+                notifier.fireTestSuiteStarted((Description) event);
+                break;
+            case TEST_SUITE_FINISHED:
+                notifier.fireTestSuiteFinished((Description) event);
+                break;
+            case TEST_STARTED:
+                notifier.fireTestStarted((Description) event);
+                break;
+            case TEST_FINISHED:
+                notifier.fireTestFinished((Description) event);
+                break;
+            case TEST_FAILURE:
+                notifier.fireTestFailure((Failure) event);
+                break;
+            case TEST_ASSUMPTION_FAILURE:
+                notifier.fireTestAssumptionFailed((Failure) event);
+                break;
+            case TEST_IGNORED:
+                notifier.fireTestIgnored((Description) event);
+                break;
+            default:
+                throw new IOException("Unknown event type " + type);
+        }
+    }
+
+    /**
+     * Writes the events of a run to a stream.
+     */
+    @RunListener.ThreadSafe
+    static class StreamingListener extends RunListener {
+        private final DataOutputStream out;
+
+        StreamingListener(DataOutputStream out) {
+            this.out = out;
+        }
+
+        void writeEvent(int type, Object payload) throws IOException {
+            writeEvent(type, serialize(payload));
+        }
+
+        synchronized void writeEvent(int type, byte[] payload) throws IOException {
+            out.writeInt(type);
+            out.writeInt(payload.length);
+            out.write(payload);
+            out.flush();
+        }
+
+        private void writeFailure(int type, Failure failure) throws IOException {
+            byte[] payload;
+            try {
+                payload = serialize(failure);
+            } catch (IOException e) {
+                payload = serialize(new Failure(failure.getDescription(),
+                        portableCopy(failure.getException())));
+            }
+            writeEvent(type, payload);
+        }
+
+        @Override
+        public void testSuiteStarted(Description description) throws Exception {
+            writeEvent(TEST_SUITE_STARTED, description);
+        }
+
+        @Override
+        public void testSuiteFinished(Description description) throws Exception {
+            writeEvent(TEST_SUITE_FINISHED, description);
+        }
+
+        @Override
+        public void testStarted(Description description) throws Exception {
+            writeEvent(TEST_STARTED, description);
+        }
+
+        @Override
+        public void testFinished(Description description) throws Exception {
+            writeEvent(TEST_FINISHED, description);
+        }
+
+        @Override
+        public void testFailure(Failure failure) throws Exception {
+            writeFailure(TEST_FAILURE, failure);
+        }
+
+        @Override
+        public void testAssumptionFailure(Failure failure) {
+            try {
+                writeFailure(TEST_ASSUMPTION_FAILURE, failure);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public void testIgnored(Description description) throws Exception {
+            writeEvent(TEST_IGNORED, description);
+        }
+    }
+}
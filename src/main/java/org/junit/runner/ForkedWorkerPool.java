@@ -0,0 +1,410 @@
+package org.junit.runner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runner.notification.StoppedByUserException;
+
+/**
+ * Runs test classes in a pool of child JVMs, for tests that cannot share a JVM
+ * with other tests running at the same time (for example because of static
+ * singletons).
+ *
+ * <p>Each worker JVM takes the next class from a shared queue as soon as it is
+ * free, and streams the {@link org.junit.runner.notification.RunListener}
+ * events of that class back over a local socket. They are fired on the
+ * {@link RunNotifier} of this runner, so all workers contribute to a single
+ * {@link Result}. A worker is replaced by a fresh JVM after it has run a
+ * configurable number of classes, which keeps its heap from growing without
+ * bounds. The worker JVMs may share the classes of the JDK and the libraries
+ * through a class-data sharing archive, see {@link ClassDataSharing}.
+ *
+ * <p>The {@link #getDescription() description} of the run is built by a worker
+ * JVM that describes each class with the filters applied, before any test
+ * runs. Unless workers are replaced after a number of classes, that worker
+ * then runs the first classes. If the worker cannot be started, the classes
+ * are described without their tests, and the failure is reported when the
+ * run starts its workers.
+ *
+ * @see ForkedWorker
+ */
+class ForkedWorkerPool extends Runner {
+    private static final int ACCEPT_TIMEOUT_MILLIS = 1000;
+
+    private final List<Class<?>> classes;
+
+    private final List<String> filterSpecs;
+
+    private final int workers;
+
+    private final int classesPerWorker;
+
+    private final ClassDataSharing classDataSharing;
+
+    // Guarded by this
+    private Description description;
+
+    // The worker that described the classes and has not been handed to a
+    // WorkerHandler yet. Guarded by this
+    private WorkerProcess describingWorker;
+
+    /**
+     * @param classes the test classes to run
+     * @param filterSpecs the filter specs each worker applies to each class
+     * @param workers the number of child JVMs
+     * @param classesPerWorker the number of classes after which a child JVM
+     * is replaced, or {@code 0} to keep it for the whole run
+     */
+    ForkedWorkerPool(List<Class<?>> classes, List<String> filterSpecs, int workers,
+            int classesPerWorker) {
+        this(classes, filterSpecs, workers, classesPerWorker, null);
+    }
+
+    /**
+     * @param classDataSharing the class-data sharing archive of the workers,
+     * which is created after the run if it does not exist yet, or {@code null}
+     * if the workers should not use one
+     */
+    ForkedWorkerPool(List<Class<?>> classes, List<String> filterSpecs, int workers,
+            int classesPerWorker, ClassDataSharing classDataSharing) {
+        this.classes = classes;
+        this.filterSpecs = filterSpecs;
+        this.workers = workers;
+        this.classesPerWorker = classesPerWorker;
+        this.classDataSharing = classDataSharing;
+    }
+
+    @Override
+    public synchronized Description getDescription() {
+        if (description == null) {
+            description = describeClasses();
+        }
+        return description;
+    }
+
+    private Description describeClasses() {
+        Description suite = Description.createSuiteDescription("classes");
+        WorkerProcess worker;
+        try {
+            worker = WorkerProcess.start(filterSpecs, classDataSharing);
+        } catch (IOException e) {
+            worker = null;
+        }
+        for (Class<?> each : classes) {
+            if (worker != null) {
+                try {
+                    Description child = worker.describeClass(each.getName());
+                    if (child != null) {
+                        suite.addChild(child);
+                    }
+                    continue;
+                } catch (IOException e) {
+                    worker.destroy();
+                    worker = null;
+                }
+            }
+            suite.addChild(Description.createSuiteDescription(each));
+        }
+        if (worker != null) {
+            if (classesPerWorker == 0) {
+                describingWorker = worker;
+            } else {
+                worker.exit();
+            }
+        }
+        return suite;
+    }
+
+    private synchronized WorkerProcess takeDescribingWorker() {
+        WorkerProcess worker = describingWorker;
+        describingWorker = null;
+        return worker;
+    }
+
+    @Override
+    public void run(RunNotifier notifier) {
+        BlockingQueue<String> queue = new LinkedBlockingQueue<String>();
+        for (Class<?> each : classes) {
+            queue.add(each.getName());
+        }
+        List<Thread> threads = new ArrayList<Thread>(workers);
+        for (int i = 1; i <= workers; i++) {
+            Thread thread = new Thread(new WorkerHandler(queue, notifier), "ForkedWorker-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread each : threads) {
+            joinUninterruptibly(each);
+        }
+        if (classDataSharing != null && classDataSharing.isRecording()) {
+            try {
+                classDataSharing.createArchive();
+            } catch (IOException e) {
+                notifier.fireTestFailure(new Failure(
+                        Description.createSuiteDescription(ClassDataSharing.class), e));
+            }
+        }
+    }
+
+    private static void joinUninterruptibly(Thread thread) {
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Feeds classes from the queue to one child JVM after another.
+     */
+    private class WorkerHandler implements Runnable {
+        private final BlockingQueue<String> queue;
+
+        private final RunNotifier notifier;
+
+        WorkerHandler(BlockingQueue<String> queue, RunNotifier notifier) {
+            this.queue = queue;
+            this.notifier = notifier;
+        }
+
+        public void run() {
+            WorkerProcess worker = takeDescribingWorker();
+            int classesRun = 0;
+            try {
+                String className = queue.poll();
+                while (className != null) {
+                    if (worker == null) {
+                        worker = startWorkerOrReportFailure(className);
+                    }
+                    if (worker != null) {
+                        if (worker.runClass(className, notifier)) {
+                            if (++classesRun == classesPerWorker) {
+                                worker.exit();
+                                worker = null;
+                                classesRun = 0;
+                            }
+                        } else {
+                            notifier.fireTestFailure(new Failure(
+                                    Description.createSuiteDescription(className),
+                                    new Exception("Forked JVM terminated while running " + className)));
+                            worker.destroy();
+                            worker = null;
+                            classesRun = 0;
+                        }
+                    }
+                    className = queue.poll();
+                }
+            } catch (StoppedByUserException e) {
+                queue.clear();
+                if (worker != null) {
+                    worker.destroy();
+                    worker = null;
+                }
+            } finally {
+                if (worker != null) {
+                    worker.exit();
+                }
+            }
+        }
+
+        private WorkerProcess startWorkerOrReportFailure(String className) {
+            try {
+                return WorkerProcess.start(filterSpecs, classDataSharing);
+            } catch (IOException e) {
+                notifier.fireTestFailure(new Failure(
+                        Description.createSuiteDescription(className), e));
+                return null;
+            }
+        }
+    }
+
+    /**
+     * A child JVM running {@link ForkedWorker}, and the connection to it.
+     */
+    private static final class WorkerProcess {
+        private final Process process;
+
+        private final Socket socket;
+
+        private final DataInputStream in;
+
+        private final DataOutputStream out;
+
+        static WorkerProcess start(List<String> filterSpecs, ClassDataSharing classDataSharing)
+                throws IOException {
+            ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getByName(null));
+            try {
+                serverSocket.setSoTimeout(ACCEPT_TIMEOUT_MILLIS);
+                List<String> command = new ArrayList<String>();
+                command.add(System.getProperty("java.home") + File.separator + "bin"
+                        + File.separator + "java");
+                if (classDataSharing == null) {
+                    command.add("-cp");
+                    command.add(System.getProperty("java.class.path"));
+                } else {
+                    command.addAll(classDataSharing.jvmOptions());
+                }
+                command.add(ForkedWorker.class.getName());
+                command.add(String.valueOf(serverSocket.getLocalPort()));
+                for (String each : filterSpecs) {
+                    command.add("--filter=" + each);
+                }
+                Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+                startCopying(process.getInputStream(), System.out);
+                return new WorkerProcess(process, accept(serverSocket, process));
+            } finally {
+                serverSocket.close();
+            }
+        }
+
+        private static Socket accept(ServerSocket serverSocket, Process process) throws IOException {
+            while (true) {
+                try {
+                    return serverSocket.accept();
+                } catch (SocketTimeoutException e) {
+                    if (hasExited(process)) {
+                        throw new IOException("Forked JVM exited with status "
+                                + process.exitValue() + " before it connected");
+                    }
+                }
+            }
+        }
+
+        private static boolean hasExited(Process process) {
+            try {
+                process.exitValue();
+                return true;
+            } catch (IllegalThreadStateException e) {
+                return false;
+            }
+        }
+
+        private static void startCopying(final InputStream from, final PrintStream to) {
+            Thread thread = new Thread("ForkedWorker-output") {
+                @Override
+                public void run() {
+                    byte[] buffer = new byte[8192];
+                    try {
+                        int count;
+                        while ((count = from.read(buffer)) != -1) {
+                            to.write(buffer, 0, count);
+                        }
+                    } catch (IOException e) {
+                        // the worker is gone, so is its output
+                    }
+                }
+            };
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private WorkerProcess(Process process, Socket socket) throws IOException {
+            this.process = process;
+            this.socket = socket;
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        /**
+         * Returns the description of {@code className} in this worker, or
+         * {@code null} if the filters of the worker remove all of its tests.
+         *
+         * @throws IOException if the worker died before it described the class
+         */
+        Description describeClass(String className) throws IOException {
+            out.writeUTF(ForkedWorker.DESCRIBE + className);
+            out.flush();
+            Description result = null;
+            while (true) {
+                int type = in.readInt();
+                byte[] payload = new byte[in.readInt()];
+                in.readFully(payload);
+                if (type == ForkedWorker.CLASS_FINISHED) {
+                    return result;
+                } else if (type == ForkedWorker.DESCRIPTION) {
+                    try {
+                        result = (Description) ForkedWorker.deserialize(payload);
+                    } catch (ClassNotFoundException e) {
+                        IOException exception = new IOException("Cannot read description of " + className);
+                        exception.initCause(e);
+                        throw exception;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Runs {@code className} in this worker and fires its events on
+         * {@code notifier}.
+         *
+         * @return {@code false} if the worker died before it finished the class
+         */
+        boolean runClass(String className, RunNotifier notifier) {
+            try {
+                out.writeUTF(className);
+                out.flush();
+                while (true) {
+                    int type = in.readInt();
+                    byte[] payload = new byte[in.readInt()];
+                    in.readFully(payload);
+                    if (type == ForkedWorker.CLASS_FINISHED) {
+                        return true;
+                    }
+                    ForkedWorker.fireEvent(type, payload, notifier);
+                }
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        void exit() {
+            try {
+                out.writeUTF("");
+                out.flush();
+                process.waitFor();
+            } catch (IOException e) {
+                process.destroy();
+            } catch (InterruptedException e) {
+                process.destroy();
+                Thread.currentThread().interrupt();
+            } finally {
+                closeSocket();
+            }
+        }
+
+        void destroy() {
+            process.destroy();
+            closeSocket();
+        }
+
+        private void closeSocket() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // nothing left to clean up
+            }
+        }
+    }
+}
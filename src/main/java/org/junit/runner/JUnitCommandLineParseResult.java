@@ -1,18 +1,46 @@
 package org.junit.runner;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
 
 import org.junit.internal.Classes;
 import org.junit.runner.FilterFactory.FilterNotCreatedException;
 import org.junit.runner.manipulation.Filter;
+import org.junit.runner.notification.RunListener;
 import org.junit.runners.model.InitializationError;
 
 class JUnitCommandLineParseResult {
     private final List<String> filterSpecs = new ArrayList<String>();
     private final List<Class<?>> classes = new ArrayList<Class<?>>();
     private final List<Throwable> parserErrors = new ArrayList<Throwable>();
+    private int workers = 0;
+    private int classesPerWorker = 0;
+    private boolean failFast = false;
+    private boolean lowMemory = false;
+    private boolean lazyConstruction = false;
+    private boolean parallelConstruction = false;
+    private int daemonPort = 0;
+    private int connectPort = 0;
+    private final List<String> forwardedArgs = new ArrayList<String>();
+    private boolean watch = false;
+    private final List<String> optionArgs = new ArrayList<String>();
+    private File cdsArchive = null;
+    private File checkpoint = null;
+    private boolean resume = false;
+    private final List<String> changedClasses = new ArrayList<String>();
+    private File changedSince = null;
+    private RunListener selectionStateRecorder = null;
 
     /**
      * Do not use. Testing purposes only.
@@ -33,6 +61,146 @@ class JUnitCommandLineParseResult {
         return Collections.unmodifiableList(classes);
     }
 
+    /**
+     * Returns the number of forked worker JVMs parsed from command line, or
+     * {@code 0} if the tests should run in this JVM.
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Returns the number of classes after which a forked worker JVM is
+     * replaced, or {@code 0} if workers are never replaced.
+     */
+    public int getClassesPerWorker() {
+        return classesPerWorker;
+    }
+
+    /**
+     * Returns {@code true} if the run should stop at its first failure.
+     */
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    /**
+     * Returns {@code true} if runners should be released as soon as they
+     * have finished.
+     */
+    public boolean isLowMemory() {
+        return lowMemory;
+    }
+
+    /**
+     * Returns {@code true} if the runners for the test classes should only be
+     * built when they are needed.
+     */
+    public boolean isLazyConstruction() {
+        return lazyConstruction;
+    }
+
+    /**
+     * Returns {@code true} if the runners for the test classes should be
+     * built on all available processors.
+     */
+    public boolean isParallelConstruction() {
+        return parallelConstruction;
+    }
+
+    /**
+     * Returns the local port on which this JVM should serve runs as a daemon,
+     * or {@code 0} if it should run the tests itself.
+     */
+    public int getDaemonPort() {
+        return daemonPort;
+    }
+
+    /**
+     * Returns the local port of a daemon that should run the tests, or
+     * {@code 0} if this JVM should run them itself.
+     */
+    public int getConnectPort() {
+        return connectPort;
+    }
+
+    /**
+     * Returns the arguments to send to the daemon given by
+     * {@link #getConnectPort()}: all arguments except the port itself. The
+     * test classes are not loaded in this JVM.
+     */
+    public List<String> getForwardedArgs() {
+        return Collections.unmodifiableList(forwardedArgs);
+    }
+
+    /**
+     * Returns {@code true} if the tests should run again whenever classes
+     * that they depend on are recompiled.
+     */
+    public boolean isWatch() {
+        return watch;
+    }
+
+    /**
+     * Returns the options given on the command line except for
+     * {@code --watch}, for running some of the tests again with the same
+     * options.
+     */
+    public List<String> getOptionArgs() {
+        return Collections.unmodifiableList(optionArgs);
+    }
+
+    /**
+     * Returns the class-data sharing archive of the JVMs that run the tests,
+     * which is created by the run if it does not exist yet, or {@code null}
+     * if no archive should be used.
+     */
+    public File getCdsArchive() {
+        return cdsArchive;
+    }
+
+    /**
+     * Returns the file to which the outcome of each test is appended, or
+     * {@code null} if the outcomes should not be recorded.
+     */
+    public File getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Returns {@code true} if the tests that passed according to the
+     * {@link #getCheckpoint() checkpoint} should not run again.
+     */
+    public boolean isResume() {
+        return resume;
+    }
+
+    /**
+     * Returns the names of the changed classes; only the test classes that
+     * depend on them should run.
+     */
+    public List<String> getChangedClasses() {
+        return Collections.unmodifiableList(changedClasses);
+    }
+
+    /**
+     * Returns the file with the state of the class files at the last
+     * successful run, or {@code null}. If a file is given, only the test
+     * classes that depend on classes that changed since then should run.
+     */
+    public File getChangedSince() {
+        return changedSince;
+    }
+
+    /**
+     * Returns a listener that saves the state of the class files to
+     * {@link #getChangedSince()} if the run succeeds, or {@code null} if
+     * there is no such file.
+     */
+    public RunListener getSelectionStateRecorder() {
+        return selectionStateRecorder;
+    }
+
     /**
      * Parses the arguments.
      *
@@ -47,7 +215,48 @@ class JUnitCommandLineParseResult {
     }
 
     private void parseArgs(String[] args) {
-        parseParameters(parseOptions(args));
+        String[] parameters = parseOptions(args);
+        if (resume && checkpoint == null) {
+            parserErrors.add(new CommandLineParserError("--resume requires a --checkpoint"));
+        }
+        int optionCount = args.length - parameters.length;
+        for (int i = 0; i < optionCount; i++) {
+            boolean endOfOptions = i == optionCount - 1 && args[i].equals("--");
+            if (!endOfOptions && !args[i].equals("--watch")) {
+                optionArgs.add(args[i]);
+            }
+        }
+        if (connectPort > 0) {
+            for (String each : args) {
+                if (!each.startsWith("--connect=")) {
+                    forwardedArgs.add(each);
+                }
+            }
+        } else if (!changedClasses.isEmpty() || changedSince != null) {
+            parseParameters(selectTestClasses(parameters));
+        } else {
+            parseParameters(parameters);
+        }
+    }
+
+    /**
+     * Returns the test classes that depend on the changed classes, judging
+     * from the class files in the folders of the class path.
+     */
+    private String[] selectTestClasses(String[] testClassNames) {
+        try {
+            ChangeBasedSelection selection = ChangeBasedSelection.scan(JUnitCore.classFolders());
+            Set<String> changed = new HashSet<String>(changedClasses);
+            if (changedSince != null) {
+                changed.addAll(selection.getClassesChangedSince(changedSince));
+                selectionStateRecorder = selection.createStateRecorder(changedSince);
+            }
+            List<String> selected = selection.selectTestClasses(Arrays.asList(testClassNames), changed);
+            return selected.toArray(new String[selected.size()]);
+        } catch (IOException e) {
+            parserErrors.add(e);
+            return testClassNames;
+        }
     }
 
     String[] parseOptions(String... args) {
@@ -73,6 +282,38 @@ class JUnitCommandLineParseResult {
                     }
 
                     filterSpecs.add(filterSpec);
+                } else if (arg.startsWith("--workers=")) {
+                    workers = parsePositiveInt(arg);
+                } else if (arg.startsWith("--classes-per-worker=")) {
+                    classesPerWorker = parsePositiveInt(arg);
+                } else if (arg.equals("--fail-fast")) {
+                    failFast = true;
+                } else if (arg.equals("--low-memory")) {
+                    lowMemory = true;
+                } else if (arg.equals("--lazy-construction")) {
+                    lazyConstruction = true;
+                } else if (arg.equals("--parallel-construction")) {
+                    parallelConstruction = true;
+                } else if (arg.startsWith("--daemon=")) {
+                    daemonPort = parsePositiveInt(arg);
+                } else if (arg.startsWith("--connect=")) {
+                    connectPort = parsePositiveInt(arg);
+                } else if (arg.equals("--watch")) {
+                    watch = true;
+                } else if (arg.startsWith("--cds-archive=")) {
+                    cdsArchive = new File(arg.substring(arg.indexOf('=') + 1));
+                } else if (arg.startsWith("--checkpoint=")) {
+                    checkpoint = new File(arg.substring(arg.indexOf('=') + 1));
+                } else if (arg.equals("--resume")) {
+                    resume = true;
+                } else if (arg.startsWith("--changed=")) {
+                    for (String each : arg.substring(arg.indexOf('=') + 1).split(",")) {
+                        if (each.length() > 0) {
+                            changedClasses.add(each);
+                        }
+                    }
+                } else if (arg.startsWith("--changed-since=")) {
+                    changedSince = new File(arg.substring(arg.indexOf('=') + 1));
                 } else {
                     parserErrors.add(new CommandLineParserError("JUnit knows nothing about the " + arg + " option"));
                 }
@@ -84,6 +325,20 @@ class JUnitCommandLineParseResult {
         return new String[]{};
     }
 
+    private int parsePositiveInt(String arg) {
+        String value = arg.substring(arg.indexOf('=') + 1);
+        try {
+            int result = Integer.parseInt(value);
+            if (result > 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the parser error
+        }
+        parserErrors.add(new CommandLineParserError(arg + " is not a positive number"));
+        return 0;
+    }
+
     private String[] copyArray(String[] args, int from, int to) {
         String[] result = new String[to - from];
         for (int j = from; j != to; ++j) {
@@ -92,12 +347,54 @@ class JUnitCommandLineParseResult {
         return result;
     }
 
+    /**
+     * Loads the test classes on as many threads as there are processors. The
+     * classes are not initialized, so that their static initializers only run
+     * when their tests run, and never for classes that are filtered out.
+     */
     void parseParameters(String[] args) {
-        for (String arg : args) {
-            try {
-                classes.add(Classes.getClass(arg));
-            } catch (ClassNotFoundException e) {
-                parserErrors.add(new IllegalArgumentException("Could not find class [" + arg + "]", e));
+        List<FutureTask<Class<?>>> lookups = new ArrayList<FutureTask<Class<?>>>(args.length);
+        for (final String arg : args) {
+            lookups.add(new FutureTask<Class<?>>(new Callable<Class<?>>() {
+                public Class<?> call() throws ClassNotFoundException {
+                    return Classes.getClass(arg, false, Classes.class);
+                }
+            }));
+        }
+        int threads = Math.min(args.length, Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        try {
+            for (FutureTask<Class<?>> each : lookups) {
+                if (executor == null) {
+                    each.run();
+                } else {
+                    executor.execute(each);
+                }
+            }
+            for (int i = 0; i < args.length; i++) {
+                addClass(args[i], lookups.get(i));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            parserErrors.add(e);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private void addClass(String arg, FutureTask<Class<?>> lookup) throws InterruptedException {
+        try {
+            classes.add(lookup.get());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ClassNotFoundException) {
+                parserErrors.add(new IllegalArgumentException("Could not find class [" + arg + "]", cause));
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw (RuntimeException) cause;
             }
         }
     }
@@ -113,6 +410,19 @@ class JUnitCommandLineParseResult {
      */
     public Request createRequest(Computer computer) {
         if (parserErrors.isEmpty()) {
+            ClassDataSharing classDataSharing = cdsArchive == null ? null : new ClassDataSharing(cdsArchive);
+            if (workers > 0 || (classDataSharing != null && classDataSharing.isRecording())) {
+                // only worker JVMs can record the classes that they load
+                String packedShard = findShardPackedByHistory();
+                if (packedShard != null) {
+                    // workers filter each class on its own, so they cannot
+                    // pack the tests of the whole run into the same shards
+                    return errorReport(new CommandLineParserError("--filter=" + packedShard
+                            + " cannot be used with forked workers; shard without history= instead"));
+                }
+                return Request.runner(new ForkedWorkerPool(classes, filterSpecs,
+                        Math.max(workers, 1), classesPerWorker, classDataSharing));
+            }
             Request request = Request.classes(
                     computer, classes.toArray(new Class<?>[classes.size()]));
             return applyFilterSpecs(request);
@@ -121,6 +431,17 @@ class JUnitCommandLineParseResult {
         }
     }
 
+    private String findShardPackedByHistory() {
+        for (String each : filterSpecs) {
+            String[] tuple = each.split("=", 2);
+            if ((tuple[0].equals("shard") || tuple[0].equals("org.junit.experimental.max.ShardFilterFactory"))
+                    && tuple.length == 2 && tuple[1].contains("history=")) {
+                return each;
+            }
+        }
+        return null;
+    }
+
     private Request applyFilterSpecs(Request request) {
         try {
             for (String filterSpec : filterSpecs) {
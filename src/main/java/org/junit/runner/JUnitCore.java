@@ -1,12 +1,26 @@
 package org.junit.runner;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
 import junit.runner.Version;
+import org.junit.internal.ClassDependencyGraph;
+import org.junit.internal.IsolatingClassLoader;
 import org.junit.internal.JUnitSystem;
 import org.junit.internal.RealSystem;
 import org.junit.internal.TextListener;
+import org.junit.internal.builders.AllDefaultPossibilitiesBuilder;
 import org.junit.internal.runners.JUnit38ClassRunner;
 import org.junit.runner.notification.RunListener;
 import org.junit.runner.notification.RunNotifier;
+import org.junit.runner.notification.StoppedByUserException;
+import org.junit.runners.ParentRunner;
 
 /**
  * <code>JUnitCore</code> is a facade for running tests. It supports running JUnit 4 tests,
@@ -22,8 +36,20 @@ import org.junit.runner.notification.RunNotifier;
  * @since 4.0
  */
 public class JUnitCore {
+    private static final long WATCH_POLLING_INTERVAL_MILLIS = 500;
+
     private final RunNotifier notifier = new RunNotifier();
 
+    private volatile boolean failFast = false;
+
+    private volatile boolean pipelined = false;
+
+    private volatile boolean lowMemory = false;
+
+    private volatile File checkpoint = null;
+
+    private volatile boolean resumeFromCheckpoint = false;
+
     /**
      * Run the tests contained in the classes named in the <code>args</code>.
      * If all tests run successfully, exit with a status of 0. Otherwise exit with a status of 1.
@@ -73,8 +99,155 @@ public class JUnitCore {
 
         RunListener listener = new TextListener(system);
         addListener(listener);
+        if (jUnitCommandLineParseResult.getDaemonPort() > 0) {
+            return serveAsDaemon(system, jUnitCommandLineParseResult.getDaemonPort());
+        } else if (jUnitCommandLineParseResult.getConnectPort() > 0) {
+            return run(new JUnitDaemonClient(jUnitCommandLineParseResult.getConnectPort(),
+                    jUnitCommandLineParseResult.getForwardedArgs(), system.out(), System.err));
+        } else if (jUnitCommandLineParseResult.isWatch()) {
+            return watch(system, jUnitCommandLineParseResult, classFolders());
+        }
+        File cdsArchive = jUnitCommandLineParseResult.getCdsArchive();
+        boolean createsCdsArchive = cdsArchive != null && !cdsArchive.exists();
+        Result result = run(jUnitCommandLineParseResult);
+        if (createsCdsArchive && cdsArchive.isFile()) {
+            system.out().println("Created class-data sharing archive " + cdsArchive
+                    + " from class list " + ClassDataSharing.classList(cdsArchive)
+                    + ". Start JVMs with -XX:SharedArchiveFile=" + cdsArchive
+                    + " and a class path that starts with its jars.");
+        }
+        return result;
+    }
+
+    /**
+     * Runs the tests given on the command line with the options given there.
+     */
+    Result run(JUnitCommandLineParseResult jUnitCommandLineParseResult) {
+        setFailFast(jUnitCommandLineParseResult.isFailFast());
+        setLowMemory(jUnitCommandLineParseResult.isLowMemory());
+        setCheckpoint(jUnitCommandLineParseResult.getCheckpoint());
+        setResumeFromCheckpoint(jUnitCommandLineParseResult.isResume());
+
+        Computer computer = defaultComputer();
+        computer.setLazyRunnerConstruction(jUnitCommandLineParseResult.isLazyConstruction());
+        computer.setParallelRunnerConstruction(jUnitCommandLineParseResult.isParallelConstruction());
+        RunListener selectionStateRecorder = jUnitCommandLineParseResult.getSelectionStateRecorder();
+        if (selectionStateRecorder != null) {
+            addListener(selectionStateRecorder);
+        }
+        try {
+            return run(jUnitCommandLineParseResult.createRequest(computer));
+        } finally {
+            if (selectionStateRecorder != null) {
+                removeListener(selectionStateRecorder);
+            }
+        }
+    }
 
-        return run(jUnitCommandLineParseResult.createRequest(defaultComputer()));
+    /**
+     * Runs the tests given on the command line, and then, whenever classes in
+     * {@code folders} are recompiled, runs those test classes again that
+     * depend on the recompiled classes. The test classes and the classes in
+     * {@code folders} are loaded again for each of these runs, the other
+     * classes stay loaded. Returns the result of the last run when the
+     * current thread is interrupted.
+     */
+    Result watch(JUnitSystem system, JUnitCommandLineParseResult jUnitCommandLineParseResult,
+            List<File> folders) {
+        ClassFileWatcher watcher = new ClassFileWatcher(folders, WATCH_POLLING_INTERVAL_MILLIS);
+        ClassDependencyGraph graph;
+        try {
+            graph = ClassDependencyGraph.scan(folders);
+        } catch (IOException e) {
+            return run(Request.errorReport(ClassDependencyGraph.class, e));
+        }
+        Result result = run(jUnitCommandLineParseResult);
+        system.out().println("Watching " + folders + " for changes");
+        try {
+            while (true) {
+                Set<String> changedClasses = watcher.awaitChanges();
+                try {
+                    graph.update(changedClasses);
+                } catch (IOException e) {
+                    system.out().println("Cannot read the changed classes: " + e.getMessage());
+                    continue;
+                }
+                Set<String> dependentClasses = graph.getDependentClasses(changedClasses);
+                List<String> testClasses = new ArrayList<String>();
+                for (Class<?> each : jUnitCommandLineParseResult.getClasses()) {
+                    if (dependentClasses.contains(each.getName())) {
+                        testClasses.add(each.getName());
+                    }
+                }
+                if (testClasses.isEmpty()) {
+                    system.out().println("No tests depend on " + changedClasses);
+                } else {
+                    result = runAgain(system, jUnitCommandLineParseResult.getOptionArgs(),
+                            testClasses, folders);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
+    private static Result runAgain(JUnitSystem system, List<String> optionArgs,
+            List<String> testClasses, List<File> folders) {
+        List<String> args = new ArrayList<String>(optionArgs);
+        args.add("--");
+        args.addAll(testClasses);
+        List<URL> urls = new ArrayList<URL>();
+        for (File each : folders) {
+            try {
+                urls.add(each.toURI().toURL());
+            } catch (MalformedURLException e) {
+                // not a folder that could be loaded from
+            }
+        }
+        Thread thread = Thread.currentThread();
+        ClassLoader previousClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(new IsolatingClassLoader(
+                urls.toArray(new URL[urls.size()]), JUnitCore.class.getClassLoader()));
+        try {
+            JUnitCore core = new JUnitCore();
+            core.addListener(new TextListener(system));
+            return core.run(JUnitCommandLineParseResult.parse(args.toArray(new String[args.size()])));
+        } finally {
+            thread.setContextClassLoader(previousClassLoader);
+        }
+    }
+
+    /**
+     * Returns the folders of the class path of JUnit.
+     */
+    static List<File> classFolders() {
+        List<File> result = new ArrayList<File>();
+        for (URL each : IsolatingClassLoader.folders(
+                IsolatingClassLoader.classPath(JUnitCore.class.getClassLoader()))) {
+            try {
+                result.add(new File(each.toURI()));
+            } catch (URISyntaxException e) {
+                // not a folder
+            }
+        }
+        return result;
+    }
+
+    private Result serveAsDaemon(JUnitSystem system, int port) {
+        JUnitDaemon daemon;
+        try {
+            daemon = new JUnitDaemon(port, JUnitCore.class.getClassLoader());
+        } catch (IOException e) {
+            return run(Request.errorReport(JUnitDaemon.class, e));
+        }
+        system.out().println("Serving test runs on port " + daemon.getPort());
+        try {
+            daemon.serve();
+        } catch (IOException e) {
+            return run(Request.errorReport(JUnitDaemon.class, e));
+        }
+        return new Result();
     }
 
     /**
@@ -84,6 +257,80 @@ public class JUnitCore {
         return Version.id();
     }
 
+    /**
+     * Specifies whether runs stop at their first failure. If enabled, the
+     * first failure stops the run as if {@link RunNotifier#pleaseStop()} had
+     * been called, and the threads of tests that are still running (for
+     * example on the workers of a {@link org.junit.experimental.ParallelComputer})
+     * are interrupted. The run then returns normally; its {@link Result}
+     * separates the {@link Result#getCancelledCount() cancelled} tests from those that
+     * {@link Result#getNotStartedCount() never started}.
+     *
+     * <p>Only the run that failed is stopped; later runs of this
+     * {@code JUnitCore} start their tests as usual.
+     *
+     * @since 4.13.3
+     */
+    public void setFailFast(boolean failFast) {
+        this.failFast = failFast;
+    }
+
+    /**
+     * Specifies whether {@link #run(Computer, Class[])} starts running the
+     * first classes while the runners for the later ones are still being
+     * built. The description passed to
+     * {@link RunListener#testRunStarted(Description)} is then completed while
+     * the tests run.
+     *
+     * @see Computer#getPipelinedSuite(org.junit.runners.model.RunnerBuilder, Class[])
+     * @since 4.13.3
+     */
+    public void setPipelinedDiscovery(boolean pipelined) {
+        this.pipelined = pipelined;
+    }
+
+    /**
+     * Specifies whether runs release each runner as soon as it has finished.
+     * In this low-memory mode, finished test classes, together with their
+     * runners, {@link org.junit.runners.model.TestClass}es and fixtures (such
+     * as the parameters of {@link org.junit.runners.Parameterized} tests), can
+     * be garbage collected while the run goes on; only their
+     * {@link Description}s and the {@link Result} are kept.
+     *
+     * @see org.junit.runners.ParentRunner#setReleaseFinishedChildren(boolean)
+     * @since 4.13.3
+     */
+    public void setLowMemory(boolean lowMemory) {
+        this.lowMemory = lowMemory;
+    }
+
+    /**
+     * Specifies a file to which runs append the outcome of each test as soon
+     * as it has finished, or {@code null} for none. Each outcome is written
+     * to the storage device before the next test is recorded, so that it
+     * survives when the JVM or its machine is killed.
+     *
+     * @see #setResumeFromCheckpoint(boolean)
+     * @since 4.13.3
+     */
+    public void setCheckpoint(File checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    /**
+     * Specifies whether runs resume an earlier run from the
+     * {@link #setCheckpoint(File) checkpoint}. The tests that passed according
+     * to the checkpoint are then not run again; they are added to the run
+     * count and the run time of the {@link Result} with the run time they had
+     * before. All other tests run, and their outcomes are appended to the
+     * checkpoint, so that the run can be resumed again.
+     *
+     * @since 4.13.3
+     */
+    public void setResumeFromCheckpoint(boolean resumeFromCheckpoint) {
+        this.resumeFromCheckpoint = resumeFromCheckpoint;
+    }
+
     /**
      * Run all the tests in <code>classes</code>.
      *
@@ -102,6 +349,9 @@ public class JUnitCore {
      * @return a {@link Result} describing the details of the test run and the failed tests.
      */
     public Result run(Computer computer, Class<?>... classes) {
+        if (pipelined) {
+            return run(computer.getPipelinedSuite(new AllDefaultPossibilitiesBuilder(), classes));
+        }
         return run(Request.classes(computer, classes));
     }
 
@@ -132,12 +382,52 @@ public class JUnitCore {
         Result result = new Result();
         RunListener listener = result.createListener();
         notifier.addFirstListener(listener);
+        RunNotifier runNotifier = notifier;
+        FailFastListener failFastListener = null;
+        if (failFast) {
+            FailFastNotifier failFastNotifier = new FailFastNotifier(notifier);
+            failFastListener = new FailFastListener(failFastNotifier, result);
+            notifier.addListener(failFastListener);
+            runNotifier = failFastNotifier;
+        }
+        Checkpoint currentCheckpoint = null;
+        RunListener checkpointListener = null;
+        if (checkpoint != null) {
+            currentCheckpoint = new Checkpoint(checkpoint);
+            if (resumeFromCheckpoint) {
+                try {
+                    runner = currentCheckpoint.skipPassedTests(runner);
+                } catch (IOException e) {
+                    runner = Request.errorReport(Checkpoint.class, e).getRunner();
+                }
+            }
+            checkpointListener = currentCheckpoint.createListener();
+            notifier.addListener(checkpointListener);
+        }
+        if (lowMemory && runner instanceof ParentRunner) {
+            ((ParentRunner<?>) runner).setReleaseFinishedChildren(true);
+        }
         try {
             notifier.fireTestRunStarted(runner.getDescription());
-            runner.run(notifier);
+            try {
+                runner.run(runNotifier);
+            } catch (StoppedByUserException e) {
+                if (failFastListener == null || !failFastListener.hasStopped()) {
+                    throw e;
+                }
+            }
+            if (currentCheckpoint != null) {
+                currentCheckpoint.addSkippedTestsTo(result);
+            }
             notifier.fireTestRunFinished(result);
         } finally {
             removeListener(listener);
+            if (failFastListener != null) {
+                removeListener(failFastListener);
+            }
+            if (checkpointListener != null) {
+                removeListener(checkpointListener);
+            }
         }
         return result;
     }
@@ -0,0 +1,164 @@
+package org.junit.runner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+
+import org.junit.internal.IsolatingClassLoader;
+import org.junit.runner.ForkedWorker.StreamingListener;
+
+/**
+ * Runs tests for clients that connect to a local port, in a JVM that stays
+ * alive from one run to the next. It is started with
+ * {@code java org.junit.runner.JUnitCore --daemon=PORT}, and
+ * {@code java org.junit.runner.JUnitCore --connect=PORT [options] classes}
+ * runs tests in it, see {@link JUnitDaemonClient}.
+ *
+ * <p>The daemon serves one run at a time. A client sends the number of its
+ * command-line arguments followed by the arguments, which are parsed as by
+ * {@link JUnitCore#main(String...)}. The daemon streams the events of the run
+ * back in the format of {@link ForkedWorker}, together with everything the
+ * tests write to {@code System.out} and {@code System.err}, and ends with a
+ * {@link ForkedWorker#RUN_FINISHED} event.
+ *
+ * <p>The classes in the folders of the class path, which usually are the test
+ * and application classes, are loaded again for each run by a fresh
+ * {@link IsolatingClassLoader}, so that the run sees the classes as they
+ * were last compiled and starts with fresh static state. The classes in jars,
+ * like JUnit and the libraries, stay loaded and warmed up.
+ */
+class JUnitDaemon {
+    private final ServerSocket serverSocket;
+
+    private final ClassLoader parent;
+
+    private final URL[] reloadedLocations;
+
+    /**
+     * Creates a daemon that listens on {@code port}, or on any free port if
+     * {@code port} is {@code 0}, and reloads the folders of the class path
+     * of {@code parent}.
+     */
+    JUnitDaemon(int port, ClassLoader parent) throws IOException {
+        this(port, parent, IsolatingClassLoader.folders(IsolatingClassLoader.classPath(parent)));
+    }
+
+    /**
+     * Creates a daemon that reloads the classes at {@code reloadedLocations}
+     * for each run and loads all other classes with {@code parent}.
+     */
+    JUnitDaemon(int port, ClassLoader parent, URL[] reloadedLocations) throws IOException {
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getByName(null));
+        this.parent = parent;
+        this.reloadedLocations = reloadedLocations.clone();
+    }
+
+    /**
+     * Returns the port on which this daemon listens.
+     */
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Serves runs until {@link #close()} is called.
+     */
+    void serve() throws IOException {
+        while (true) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+            try {
+                serve(socket);
+            } catch (IOException e) {
+                // the client is gone, which does not affect other clients
+            } finally {
+                socket.close();
+            }
+        }
+    }
+
+    /**
+     * Stops serving runs. A run that is in progress still finishes.
+     */
+    void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void serve(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        String[] args = new String[in.readInt()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = in.readUTF();
+        }
+        StreamingListener listener = new StreamingListener(new DataOutputStream(
+                new BufferedOutputStream(socket.getOutputStream())));
+        run(args, listener);
+        listener.writeEvent(ForkedWorker.RUN_FINISHED, new byte[0]);
+    }
+
+    private void run(String[] args, StreamingListener listener) {
+        Thread thread = Thread.currentThread();
+        ClassLoader previousClassLoader = thread.getContextClassLoader();
+        PrintStream previousOut = System.out;
+        PrintStream previousErr = System.err;
+        PrintStream out = new PrintStream(new BufferedOutputStream(
+                new OutputForwarder(listener, ForkedWorker.OUTPUT)), true);
+        PrintStream err = new PrintStream(new BufferedOutputStream(
+                new OutputForwarder(listener, ForkedWorker.ERROR_OUTPUT)), true);
+        thread.setContextClassLoader(new IsolatingClassLoader(reloadedLocations, parent));
+        System.setOut(out);
+        System.setErr(err);
+        try {
+            JUnitCore core = new JUnitCore();
+            core.addListener(listener);
+            core.run(JUnitCommandLineParseResult.parse(args));
+        } finally {
+            out.flush();
+            err.flush();
+            System.setOut(previousOut);
+            System.setErr(previousErr);
+            thread.setContextClassLoader(previousClassLoader);
+        }
+    }
+
+    /**
+     * Sends what is written to it to the client as output events.
+     */
+    private static final class OutputForwarder extends OutputStream {
+        private final StreamingListener listener;
+
+        private final int type;
+
+        OutputForwarder(StreamingListener listener, int type) {
+            this.listener = listener;
+            this.type = type;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            byte[] payload = new byte[len];
+            System.arraycopy(b, off, payload, 0, len);
+            listener.writeEvent(type, payload);
+        }
+    }
+}
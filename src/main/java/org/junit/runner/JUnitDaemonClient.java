@@ -0,0 +1,93 @@
+package org.junit.runner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.List;
+
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+
+/**
+ * Runs tests in a {@link JUnitDaemon} and fires the events that it streams
+ * back on the {@link RunNotifier} of this runner. The output of the tests is
+ * written to the given streams.
+ */
+class JUnitDaemonClient extends Runner {
+    private final int port;
+
+    private final List<String> args;
+
+    private final PrintStream out;
+
+    private final PrintStream err;
+
+    /**
+     * @param port the local port of the daemon
+     * @param args the command-line arguments for the run, see
+     * {@link JUnitCore#main(String...)}
+     * @param out receives what the tests write to {@code System.out}
+     * @param err receives what the tests write to {@code System.err}
+     */
+    JUnitDaemonClient(int port, List<String> args, PrintStream out, PrintStream err) {
+        this.port = port;
+        this.args = args;
+        this.out = out;
+        this.err = err;
+    }
+
+    @Override
+    public Description getDescription() {
+        // the daemon loads the classes, so they are not known here
+        return Description.createSuiteDescription("classes");
+    }
+
+    @Override
+    public void run(RunNotifier notifier) {
+        try {
+            Socket socket = new Socket(InetAddress.getByName(null), port);
+            try {
+                DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(socket.getOutputStream()));
+                out.writeInt(args.size());
+                for (String each : args) {
+                    out.writeUTF(each);
+                }
+                out.flush();
+                readEvents(new DataInputStream(new BufferedInputStream(socket.getInputStream())),
+                        notifier);
+            } finally {
+                socket.close();
+            }
+        } catch (IOException e) {
+            notifier.fireTestFailure(new Failure(getDescription(), e));
+        }
+    }
+
+    private void readEvents(DataInputStream in, RunNotifier notifier) throws IOException {
+        while (true) {
+            int type = in.readInt();
+            byte[] payload = new byte[in.readInt()];
+            in.readFully(payload);
+            switch (type) {
+                case ForkedWorker.RUN_FINISHED:
+                    return;
+                case ForkedWorker.OUTPUT:
+                    out.write(payload);
+                    out.flush();
+                    break;
+                case ForkedWorker.ERROR_OUTPUT:
+                    err.write(payload);
+                    err.flush();
+                    break;
+                default:
+                    ForkedWorker.fireEvent(type, payload, notifier);
+            }
+        }
+    }
+}
@@ -9,6 +9,8 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -32,6 +34,12 @@ public class Result implements Serializable {
     private final CopyOnWriteArrayList<Failure> failures;
     private final AtomicLong runTime;
     private final AtomicLong startTime;
+    private final AtomicInteger cancelledCount;
+    private final AtomicInteger notStartedCount;
+    private final AtomicInteger startedCount = new AtomicInteger();
+    private final AtomicInteger plannedCount = new AtomicInteger();
+    private final ConcurrentMap<Description, Boolean> cancelledTests =
+            new ConcurrentHashMap<Description, Boolean>();
 
     /** Only set during deserialization process. */
     private SerializedForm serializedForm;
@@ -43,6 +51,8 @@ public class Result implements Serializable {
         failures = new CopyOnWriteArrayList<Failure>();
         runTime = new AtomicLong();
         startTime = new AtomicLong();
+        cancelledCount = new AtomicInteger();
+        notStartedCount = new AtomicInteger();
     }
 
     private Result(SerializedForm serializedForm) {
@@ -52,6 +62,8 @@ public class Result implements Serializable {
         failures = new CopyOnWriteArrayList<Failure>(serializedForm.fFailures);
         runTime = new AtomicLong(serializedForm.fRunTime);
         startTime = new AtomicLong(serializedForm.fStartTime);
+        cancelledCount = serializedForm.cancelledCount;
+        notStartedCount = serializedForm.notStartedCount;
     }
 
     /**
@@ -103,6 +115,58 @@ public class Result implements Serializable {
         return assumptionFailureCount.get();
     }
 
+    /**
+     * Returns the number of tests that were still running when a fail-fast run
+     * was stopped by its first failure, and were interrupted. These tests are
+     * part of the {@link #getRunCount() run count}, but not of the failures.
+     *
+     * @throws UnsupportedOperationException if the result was serialized in a version before JUnit 4.13.3
+     * @see JUnitCore#setFailFast(boolean)
+     * @since 4.13.3
+     */
+    public int getCancelledCount() {
+        if (cancelledCount == null) {
+            throw new UnsupportedOperationException(
+                    "Result was serialized from a version of JUnit that doesn't support this method");
+        }
+        return cancelledCount.get();
+    }
+
+    /**
+     * Returns the number of tests of the run that were neither started nor
+     * ignored, for example because the run was stopped or because a class
+     * failed before its first test.
+     *
+     * @throws UnsupportedOperationException if the result was serialized in a version before JUnit 4.13.3
+     * @since 4.13.3
+     */
+    public int getNotStartedCount() {
+        if (notStartedCount == null) {
+            throw new UnsupportedOperationException(
+                    "Result was serialized from a version of JUnit that doesn't support this method");
+        }
+        return notStartedCount.get();
+    }
+
+    /**
+     * Adds tests that passed in an earlier run, which was resumed by this
+     * run, to the run count and the run time.
+     */
+    void addEarlierRun(int runCount, long runTime) {
+        count.addAndGet(runCount);
+        this.runTime.addAndGet(runTime);
+    }
+
+    /**
+     * Records that a running test has been cancelled. Failures that it reports
+     * from now on are caused by the cancellation and are not recorded.
+     */
+    void cancel(Description description) {
+        if (cancelledTests.putIfAbsent(description, Boolean.TRUE) == null) {
+            cancelledCount.getAndIncrement();
+        }
+    }
+
     /**
      * @return <code>true</code> if all tests succeeded
      */
@@ -126,15 +190,30 @@ public class Result implements Serializable {
 
     @RunListener.ThreadSafe
     private class Listener extends RunListener {
+        private volatile Description runDescription;
+
         @Override
         public void testRunStarted(Description description) throws Exception {
             startTime.set(System.currentTimeMillis());
+            runDescription = description;
+            plannedCount.set(description.testCount());
         }
 
         @Override
         public void testRunFinished(Result result) throws Exception {
             long endTime = System.currentTimeMillis();
             runTime.addAndGet(endTime - startTime.get());
+            if (runDescription != null) {
+                // a pipelined run completes its description while it runs
+                plannedCount.set(runDescription.testCount());
+            }
+            int notStarted = plannedCount.get() - startedCount.get() - ignoreCount.get();
+            notStartedCount.set(Math.max(notStarted, 0));
+        }
+
+        @Override
+        public void testStarted(Description description) throws Exception {
+            startedCount.getAndIncrement();
         }
 
         @Override
@@ -144,7 +223,9 @@ public class Result implements Serializable {
 
         @Override
         public void testFailure(Failure failure) throws Exception {
-            failures.add(failure);
+            if (!cancelledTests.containsKey(failure.getDescription())) {
+                failures.add(failure);
+            }
         }
 
         @Override
@@ -177,6 +258,8 @@ public class Result implements Serializable {
         private final List<Failure> fFailures;
         private final long fRunTime;
         private final long fStartTime;
+        private final AtomicInteger cancelledCount;
+        private final AtomicInteger notStartedCount;
 
         public SerializedForm(Result result) {
             fCount = result.count;
@@ -185,6 +268,8 @@ public class Result implements Serializable {
             fFailures = Collections.synchronizedList(new ArrayList<Failure>(result.failures));
             fRunTime = result.runTime.longValue();
             fStartTime = result.startTime.longValue();
+            cancelledCount = result.cancelledCount;
+            notStartedCount = result.notStartedCount;
         }
 
         @SuppressWarnings("unchecked")
@@ -195,6 +280,8 @@ public class Result implements Serializable {
             fFailures = (List<Failure>) fields.get("fFailures", null);
             fRunTime = fields.get("fRunTime", 0L);
             fStartTime = fields.get("fStartTime", 0L);
+            cancelledCount = (AtomicInteger) fields.get("cancelledCount", null);
+            notStartedCount = (AtomicInteger) fields.get("notStartedCount", null);
         }
 
         public void serialize(ObjectOutputStream s) throws IOException {
@@ -205,6 +292,8 @@ public class Result implements Serializable {
             fields.put("fRunTime", fRunTime);
             fields.put("fStartTime", fStartTime);
             fields.put("assumptionFailureCount", assumptionFailureCount);
+            fields.put("cancelledCount", cancelledCount);
+            fields.put("notStartedCount", notStartedCount);
             s.writeFields();
         }
 
@@ -61,6 +61,11 @@ public abstract class Filter {
                 return false;
             }
 
+            @Override
+            public boolean mayRunClass(Class<?> testClass) {
+                return testClass.getName().equals(desiredDescription.getClassName());
+            }
+
             @Override
             public String describe() {
                 return String.format("Method %s", desiredDescription.getDisplayName());
@@ -75,6 +80,25 @@ public abstract class Filter {
      */
     public abstract boolean shouldRun(Description description);
 
+    /**
+     * Returns {@code false} if this filter removes all tests of {@code testClass},
+     * judging from the class alone. Suites use this to drop classes without
+     * building their runners. It is only asked for classes whose tests are
+     * described with {@code testClass} as their test class and with the
+     * annotations of their test methods, and whose own description is
+     * {@link Description#createSuiteDescription(Class)}.
+     *
+     * <p>The default implementation returns {@code true}, so that the filter is
+     * applied to the descriptions of the tests as usual.
+     *
+     * @param testClass the test class
+     * @return {@code false} if none of the tests of {@code testClass} can pass this filter
+     * @since 4.13.3
+     */
+    public boolean mayRunClass(Class<?> testClass) {
+        return true;
+    }
+
     /**
      * Returns a textual description of this Filter
      *
@@ -113,6 +137,12 @@ public abstract class Filter {
                         && second.shouldRun(description);
             }
 
+            @Override
+            public boolean mayRunClass(Class<?> testClass) {
+                return first.mayRunClass(testClass)
+                        && second.mayRunClass(testClass);
+            }
+
             @Override
             public String describe() {
                 return first.describe() + " and " + second.describe();
@@ -11,17 +11,21 @@ import java.util.concurrent.TimeUnit;
 
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Concurrent;
 import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.Test.None;
+import org.junit.TestInstance;
 import org.junit.internal.runners.model.ReflectiveCallable;
 import org.junit.internal.runners.statements.ExpectException;
 import org.junit.internal.runners.statements.Fail;
 import org.junit.internal.runners.statements.FailOnTimeout;
+import org.junit.internal.runners.statements.InvokeAsyncMethod;
 import org.junit.internal.runners.statements.InvokeMethod;
 import org.junit.internal.runners.statements.RunAfters;
 import org.junit.internal.runners.statements.RunBefores;
+import org.junit.internal.runners.statements.RunConcurrently;
 import org.junit.rules.MethodRule;
 import org.junit.rules.TestRule;
 import org.junit.runner.Description;
@@ -65,6 +69,13 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
 
     private final ConcurrentMap<FrameworkMethod, Description> methodDescriptions = new ConcurrentHashMap<FrameworkMethod, Description>();
 
+    private final Object sharedTestLock = new Object();
+
+    // Guarded by sharedTestLock
+    private Object sharedTest;
+
+    private volatile MethodBlockParts methodBlockParts;
+
     /**
      * Creates a BlockJUnit4ClassRunner to run {@code testClass}
      *
@@ -88,6 +99,26 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
     // Implementation of ParentRunner
     //
 
+    @Override
+    protected Statement classBlock(RunNotifier notifier) {
+        final Statement statement = super.classBlock(notifier);
+        if (!hasPerClassLifecycle()) {
+            return statement;
+        }
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                try {
+                    statement.evaluate();
+                } finally {
+                    synchronized (sharedTestLock) {
+                        sharedTest = null;
+                    }
+                }
+            }
+        };
+    }
+
     @Override
     protected void runChild(final FrameworkMethod method, RunNotifier notifier) {
         Description description = describeChild(method);
@@ -235,10 +266,41 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
 
     /**
      * Adds to {@code errors} for each method annotated with {@code @Test}that
-     * is not a public, void instance method with no arguments.
+     * is not a public, void instance method with no arguments. Test methods may
+     * also return a {@link java.util.concurrent.Future} or a
+     * {@code java.util.concurrent.CompletionStage}.
      */
     protected void validateTestMethods(List<Throwable> errors) {
-        validatePublicVoidNoArgMethods(Test.class, false, errors);
+        for (FrameworkMethod each : getTestClass().getAnnotatedMethods(Test.class)) {
+            if (InvokeAsyncMethod.isAsync(each)) {
+                validatePublicNoArgAsyncMethod(each, errors);
+            } else {
+                each.validatePublicVoidNoArg(false, errors);
+            }
+            Concurrent concurrent = each.getAnnotation(Concurrent.class);
+            if (concurrent != null && (concurrent.threads() < 1 || concurrent.repetitions() < 1)) {
+                errors.add(new Exception("Method " + each.getName()
+                        + "() should have positive @Concurrent threads and repetitions"));
+            }
+            if (concurrent != null && getExpectedException(each.getAnnotation(Test.class)) != null) {
+                // each thread would throw the expected exception, and all of
+                // them would fail together
+                errors.add(new Exception("Method " + each.getName()
+                        + "() should not expect an exception with @Concurrent"));
+            }
+        }
+    }
+
+    private void validatePublicNoArgAsyncMethod(FrameworkMethod method, List<Throwable> errors) {
+        if (method.isStatic()) {
+            errors.add(new Exception("Method " + method.getName() + "() should not be static"));
+        }
+        if (!method.isPublic()) {
+            errors.add(new Exception("Method " + method.getName() + "() should be public"));
+        }
+        if (method.getMethod().getParameterTypes().length != 0) {
+            errors.add(new Exception("Method " + method.getName() + " should have no parameters"));
+        }
     }
 
     /**
@@ -260,6 +322,29 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
         return createTest();
     }
 
+    private boolean hasPerClassLifecycle() {
+        TestInstance annotation = getTestClass().getAnnotation(TestInstance.class);
+        return annotation != null && annotation.value() == TestInstance.Lifecycle.PER_CLASS;
+    }
+
+    /**
+     * Returns the fixture to run {@code method} against: a new one from
+     * {@link #createTest(FrameworkMethod)}, or, if the class is annotated with
+     * {@code @TestInstance(PER_CLASS)}, the one that was created for the first
+     * test method of the class.
+     */
+    private Object testInstance(FrameworkMethod method) throws Exception {
+        if (!hasPerClassLifecycle()) {
+            return createTest(method);
+        }
+        synchronized (sharedTestLock) {
+            if (sharedTest == null) {
+                sharedTest = createTest(method);
+            }
+            return sharedTest;
+        }
+    }
+
     /**
      * Returns the name that describes {@code method} for {@link Description}s.
      * Default implementation is the method's name
@@ -276,7 +361,9 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
      *
      * <ul>
      * <li>Invoke {@code method} on the result of {@link #createTest(org.junit.runners.model.FrameworkMethod)}, and
-     * throw any exceptions thrown by either operation.
+     * throw any exceptions thrown by either operation. If the class is annotated
+     * with {@code @TestInstance(PER_CLASS)}, the result is only created for the
+     * first test method and reused for the others.
      * <li>HOWEVER, if {@code method}'s {@code @Test} annotation has the {@link Test#expected()}
      * attribute, return normally only if the previous step threw an
      * exception of the correct type, and throw an exception otherwise.
@@ -306,13 +393,18 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
             test = new ReflectiveCallable() {
                 @Override
                 protected Object runReflectiveCall() throws Throwable {
-                    return createTest(method);
+                    return testInstance(method);
                 }
             }.run();
         } catch (Throwable e) {
             return new Fail(e);
         }
 
+        MethodBlockParts parts = methodBlockParts();
+        if (parts.plainMethodsRunDirectly && isPlain(method)) {
+            return withInterruptIsolation(methodInvoker(method, test));
+        }
+
         Statement statement = methodInvoker(method, test);
         statement = possiblyExpectingExceptions(method, test, statement);
         statement = withPotentialTimeout(method, test, statement);
@@ -323,15 +415,101 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
         return statement;
     }
 
+    /**
+     * The parts of {@link #methodBlock(FrameworkMethod)} that only depend on
+     * the test class, and therefore are computed once per runner.
+     */
+    private static final class MethodBlockParts {
+        final List<FrameworkMethod> befores;
+
+        final List<FrameworkMethod> afters;
+
+        final boolean hasRules;
+
+        /**
+         * {@code true} if a method without {@code expected} and
+         * {@code timeout} only needs to be invoked, because the class has
+         * no befores, afters and rules, and the runner does not override
+         * any of the statement builders.
+         */
+        final boolean plainMethodsRunDirectly;
+
+        MethodBlockParts(BlockJUnit4ClassRunner runner) {
+            TestClass testClass = runner.getTestClass();
+            befores = testClass.getAnnotatedMethods(Before.class);
+            afters = testClass.getAnnotatedMethods(After.class);
+            hasRules = !testClass.getAnnotatedFields(Rule.class).isEmpty()
+                    || !testClass.getAnnotatedMethods(Rule.class).isEmpty()
+                    || runner.overrides("rules", Object.class)
+                    || runner.overrides("getTestRules", Object.class);
+            plainMethodsRunDirectly = befores.isEmpty() && afters.isEmpty() && !hasRules
+                    && !runner.overrides("methodInvoker", FrameworkMethod.class, Object.class)
+                    && !runner.overridesStatementBuilder("possiblyExpectingExceptions")
+                    && !runner.overridesStatementBuilder("withPotentialTimeout")
+                    && !runner.overridesStatementBuilder("withBefores")
+                    && !runner.overridesStatementBuilder("withAfters");
+        }
+    }
+
+    private MethodBlockParts methodBlockParts() {
+        MethodBlockParts parts = methodBlockParts;
+        if (parts == null) {
+            parts = new MethodBlockParts(this);
+            methodBlockParts = parts;
+        }
+        return parts;
+    }
+
+    private boolean overridesStatementBuilder(String name) {
+        return overrides(name, FrameworkMethod.class, Object.class, Statement.class);
+    }
+
+    private boolean overrides(String name, Class<?>... parameterTypes) {
+        for (Class<?> type = getClass(); type != BlockJUnit4ClassRunner.class;
+                type = type.getSuperclass()) {
+            try {
+                type.getDeclaredMethod(name, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // not declared by this class, look at its superclass
+            }
+        }
+        return false;
+    }
+
+    private boolean isPlain(FrameworkMethod method) {
+        Test annotation = method.getAnnotation(Test.class);
+        return getExpectedException(annotation) == null && getTimeout(annotation) <= 0;
+    }
+
     //
     // Statement builders
     //
 
     /**
-     * Returns a {@link Statement} that invokes {@code method} on {@code test}
+     * Returns a {@link Statement} that invokes {@code method} on {@code test}.
+     * If {@code method} returns a {@link java.util.concurrent.Future} or a
+     * {@code java.util.concurrent.CompletionStage}, the statement completes
+     * when the returned value completes, and the {@code timeout} attribute of
+     * the {@code @Test} annotation limits the time that it waits. If
+     * {@code method} is annotated with {@link Concurrent}, the statement
+     * invokes it on several threads at once.
      */
     protected Statement methodInvoker(FrameworkMethod method, Object test) {
-        return new InvokeMethod(method, test);
+        Statement statement;
+        if (InvokeAsyncMethod.isAsync(method)) {
+            statement = new InvokeAsyncMethod(method, test,
+                    getTimeout(method.getAnnotation(Test.class)), TimeUnit.MILLISECONDS);
+        } else {
+            statement = new InvokeMethod(method, test);
+        }
+        Concurrent concurrent = method.getAnnotation(Concurrent.class);
+        if (concurrent != null) {
+            statement = new RunConcurrently(statement, testName(method),
+                    concurrent.threads(), concurrent.repetitions(),
+                    concurrent.reportThroughput() ? System.out : null);
+        }
+        return statement;
     }
 
     /**
@@ -350,14 +528,16 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
     /**
      * Returns a {@link Statement}: if {@code method}'s {@code @Test} annotation
      * has the {@code timeout} attribute, throw an exception if {@code next}
-     * takes more than the specified number of milliseconds.
+     * takes more than the specified number of milliseconds. Asynchronous test
+     * methods get their timeout from {@link #methodInvoker(FrameworkMethod, Object)}
+     * instead, so that they do not need a thread of their own.
      * @deprecated
      */
     @Deprecated
     protected Statement withPotentialTimeout(FrameworkMethod method,
             Object test, Statement next) {
         long timeout = getTimeout(method.getAnnotation(Test.class));
-        if (timeout <= 0) {
+        if (timeout <= 0 || InvokeAsyncMethod.isAsync(method)) {
             return next;
         }
         return FailOnTimeout.builder()
@@ -372,8 +552,7 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
      */
     protected Statement withBefores(FrameworkMethod method, Object target,
             Statement statement) {
-        List<FrameworkMethod> befores = getTestClass().getAnnotatedMethods(
-                Before.class);
+        List<FrameworkMethod> befores = methodBlockParts().befores;
         return befores.isEmpty() ? statement : new RunBefores(statement,
                 befores, target);
     }
@@ -387,13 +566,15 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
      */
     protected Statement withAfters(FrameworkMethod method, Object target,
             Statement statement) {
-        List<FrameworkMethod> afters = getTestClass().getAnnotatedMethods(
-                After.class);
+        List<FrameworkMethod> afters = methodBlockParts().afters;
         return afters.isEmpty() ? statement : new RunAfters(statement, afters,
                 target);
     }
 
     private Statement withRules(FrameworkMethod method, Object target, Statement statement) {
+        if (!methodBlockParts().hasRules) {
+            return statement;
+        }
         RuleContainer ruleContainer = new RuleContainer();
         CURRENT_RULE_CONTAINER.set(ruleContainer);
         try {
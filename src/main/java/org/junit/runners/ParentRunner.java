@@ -11,6 +11,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.locks.Lock;
@@ -22,12 +23,17 @@ import org.junit.ClassRule;
 import org.junit.FixMethodOrder;
 import org.junit.Ignore;
 import org.junit.Rule;
+import org.junit.TimeBudget;
 import org.junit.internal.AssumptionViolatedException;
+import org.junit.internal.runners.LazyRunner;
 import org.junit.internal.runners.model.EachTestNotifier;
+import org.junit.internal.runners.statements.Deadline;
+import org.junit.internal.runners.statements.FailOnTimeout;
 import org.junit.internal.runners.statements.RunAfters;
 import org.junit.internal.runners.statements.RunBefores;
 import org.junit.rules.RunRules;
 import org.junit.rules.TestRule;
+import org.junit.runner.Describable;
 import org.junit.runner.Description;
 import org.junit.runner.Runner;
 import org.junit.runner.manipulation.Filter;
@@ -47,6 +53,8 @@ import org.junit.runners.model.MemberValueConsumer;
 import org.junit.runners.model.RunnerScheduler;
 import org.junit.runners.model.Statement;
 import org.junit.runners.model.TestClass;
+import org.junit.runners.model.TestTimedOutException;
+import org.junit.runners.model.TimeBudgetExceededException;
 import org.junit.validator.AnnotationsValidator;
 import org.junit.validator.TestClassValidator;
 
@@ -74,6 +82,11 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
     // Guarded by childrenLock
     private volatile List<T> filteredChildren = null;
 
+    private volatile boolean releaseFinishedChildren = false;
+
+    // Guarded by childrenLock; set once the children have been released
+    private volatile Description releasedDescription = null;
+
     private volatile RunnerScheduler scheduler = new RunnerScheduler() {
         public void schedule(Runnable childStatement) {
             childStatement.run();
@@ -204,18 +217,27 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
      * necessary, with exceptions from AfterClass methods into a
      * {@link org.junit.runners.model.MultipleFailureException}.</li>
      * </ol>
+     * If the test-class has a {@link TimeBudget}, all of these steps are run on
+     * a separate thread and are cut off when the budget is used up.
      * </li>
      * </ol>
      *
      * @return {@code Statement}
      */
     protected Statement classBlock(final RunNotifier notifier) {
-        Statement statement = childrenInvoker(notifier);
+        TimeBudget timeBudget = testClass.getAnnotation(TimeBudget.class);
+        TimeBudgetNotifier budgetNotifier = timeBudget == null
+                ? null : new TimeBudgetNotifier(notifier);
+        Statement statement = childrenInvoker(
+                budgetNotifier == null ? notifier : budgetNotifier);
         if (!areAllChildrenIgnored()) {
             statement = withBeforeClasses(statement);
             statement = withAfterClasses(statement);
             statement = withClassRules(statement);
             statement = withInterruptIsolation(statement);
+            if (timeBudget != null) {
+                statement = withTimeBudget(statement, timeBudget, budgetNotifier);
+            }
         }
         return statement;
     }
@@ -295,6 +317,44 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
         };
     }
 
+    /**
+     * Returns a {@link Statement}: runs {@code statement} on a separate thread
+     * until the {@link TimeBudget} of the class is used up, then cuts off the
+     * class. The deadline is passed on to the timeouts of the children.
+     */
+    private Statement withTimeBudget(final Statement statement, final TimeBudget timeBudget,
+            final TimeBudgetNotifier notifier) {
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                long budgetNanos = Math.min(
+                        timeBudget.unit().toNanos(timeBudget.value()), Long.MAX_VALUE / 4);
+                long deadline = Deadline.earlierOf(System.nanoTime() + budgetNanos);
+                notifier.setDeadline(deadline);
+                Long previousDeadline = Deadline.enter(deadline);
+                Throwable failure = null;
+                try {
+                    FailOnTimeout.builder().build(statement).evaluate();
+                } catch (Throwable e) {
+                    failure = e;
+                } finally {
+                    Deadline.exit(previousDeadline);
+                }
+                // The notifier has discarded all events since the deadline,
+                // so the class must be cut off even if it ended in the meantime.
+                if (System.nanoTime() - deadline >= 0) {
+                    Throwable cause = failure instanceof TestTimedOutException ? failure
+                            : new TestTimedOutException(timeBudget.value(), timeBudget.unit());
+                    List<Description> unrunTests = notifier.cutOff(cause, getDescription());
+                    throw new TimeBudgetExceededException(
+                            timeBudget.value(), timeBudget.unit(), unrunTests);
+                } else if (failure != null) {
+                    throw failure;
+                }
+            }
+        };
+    }
+
     /**
      * @return a {@link Statement}: clears interrupt status of current thread after execution of statement
      */
@@ -325,18 +385,88 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
     private void runChildren(final RunNotifier notifier) {
         final RunnerScheduler currentScheduler = scheduler;
         try {
-            for (final T each : getFilteredChildren()) {
-                currentScheduler.schedule(new Runnable() {
-                    public void run() {
-                        ParentRunner.this.runChild(each, notifier);
-                    }
-                });
+            if (releaseFinishedChildren) {
+                runAndReleaseChildren(currentScheduler, notifier);
+            } else {
+                for (final T each : getFilteredChildren()) {
+                    currentScheduler.schedule(new ChildStatement(each, notifier));
+                }
             }
         } finally {
             currentScheduler.finished();
         }
     }
 
+    /**
+     * Hands the children to the scheduler without keeping any reference to
+     * them, so that each child becomes unreachable as soon as it has finished.
+     */
+    private void runAndReleaseChildren(RunnerScheduler currentScheduler, RunNotifier notifier) {
+        LinkedList<T> children;
+        childrenLock.lock();
+        try {
+            if (releasedDescription != null) {
+                return;
+            }
+            releasedDescription = getDescription();
+            children = new LinkedList<T>(getFilteredChildren());
+            filteredChildren = Collections.emptyList();
+            releaseChildren();
+        } finally {
+            childrenLock.unlock();
+        }
+        while (!children.isEmpty()) {
+            T each = children.removeFirst();
+            Object runner = each instanceof LazyRunner ? ((LazyRunner) each).getRunner() : each;
+            if (runner instanceof ParentRunner) {
+                ((ParentRunner<?>) runner).setReleaseFinishedChildren(true);
+            }
+            currentScheduler.schedule(new ChildStatement(each, notifier));
+        }
+    }
+
+    /**
+     * Called in low-memory mode, just before the children start to run, after
+     * this runner has dropped its own references to them. Subclasses that keep
+     * further references to their children, or to data that is only needed to
+     * run them, should drop those here. The default implementation does
+     * nothing.
+     *
+     * @see #setReleaseFinishedChildren(boolean)
+     * @since 4.13.3
+     */
+    protected void releaseChildren() {
+    }
+
+    /**
+     * Runs a single child; schedulers may inspect its {@link Description}.
+     */
+    private final class ChildStatement implements Runnable, Describable {
+        private final T child;
+
+        private final RunNotifier notifier;
+
+        private final Long deadline = Deadline.current();
+
+        ChildStatement(T child, RunNotifier notifier) {
+            this.child = child;
+            this.notifier = notifier;
+        }
+
+        public void run() {
+            Long previousDeadline = Deadline.enter(deadline);
+            try {
+                runChild(child, notifier);
+            } finally {
+                Deadline.exit(previousDeadline);
+            }
+        }
+
+        public Description getDescription() {
+            return describeChild(child);
+        }
+    }
+
     /**
      * Returns a name used to describe this Runner
      */
@@ -387,6 +517,10 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
 
     @Override
     public Description getDescription() {
+        Description released = releasedDescription;
+        if (released != null) {
+            return released;
+        }
         Class<?> clazz = getTestClass().getJavaClass();
         Description description;
         // if subclass overrides `getName()` then we should use it
@@ -432,7 +566,10 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
             List<T> children = new ArrayList<T>(getFilteredChildren());
             for (Iterator<T> iter = children.iterator(); iter.hasNext(); ) {
                 T each = iter.next();
-                if (shouldRun(filter, each)) {
+                if (each instanceof LazyRunner && !((LazyRunner) each).mayRun(filter)) {
+                    // rejected without building the runner
+                    iter.remove();
+                } else if (shouldRun(filter, each)) {
                     try {
                         filter.apply(each);
                     } catch (NoTestsRemainException e) {
@@ -561,6 +698,23 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
         this.scheduler = scheduler;
     }
 
+    /**
+     * Specifies whether this runner releases its children while it runs them.
+     * In this low-memory mode, the runner keeps only the {@link Description}
+     * of its children once they start to run, so each child runner, together
+     * with its {@link TestClass} and fixtures, can be garbage collected as
+     * soon as it has finished. Children that are {@code ParentRunner}s are
+     * switched to the same mode.
+     *
+     * <p>A runner in this mode can only be run once. After it has started, it
+     * can no longer be filtered or sorted.
+     *
+     * @since 4.13.3
+     */
+    public void setReleaseFinishedChildren(boolean releaseFinishedChildren) {
+        this.releaseFinishedChildren = releaseFinishedChildren;
+    }
+
     private static class ClassRuleCollector implements MemberValueConsumer<TestRule> {
         final List<RuleContainer.RuleEntry> entries = new ArrayList<RuleContainer.RuleEntry>();
 
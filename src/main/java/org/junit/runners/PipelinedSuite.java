@@ -0,0 +1,161 @@
+package org.junit.runners;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.junit.internal.AssumptionViolatedException;
+import org.junit.internal.runners.ErrorReportingRunner;
+import org.junit.internal.runners.model.EachTestNotifier;
+import org.junit.runner.Describable;
+import org.junit.runner.Description;
+import org.junit.runner.Runner;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runner.notification.StoppedByUserException;
+import org.junit.runners.model.RunnerBuilder;
+import org.junit.runners.model.RunnerScheduler;
+
+/**
+ * A suite of test classes that starts running the first classes while the
+ * runners for the later ones are still being built.
+ *
+ * <p>When the suite is run, a background thread builds the runners of the
+ * classes one after another, in the order given. Each class is run as soon as
+ * its runner is ready; until then, the description of the suite only has the
+ * children that have been built so far. Listeners that need the number of
+ * tests in {@link org.junit.runner.notification.RunListener#testRunStarted(Description)}
+ * therefore see a description that is still being completed, and should read
+ * the counts again later, for example when each suite starts.
+ *
+ * <p>A pipelined suite can neither be filtered nor sorted, because that would
+ * need all runners up front.
+ *
+ * @see org.junit.runner.Computer#getPipelinedSuite(RunnerBuilder, Class[])
+ * @since 4.13.3
+ */
+public class PipelinedSuite extends Runner {
+    private static final Runner END_OF_CLASSES = Suite.emptySuite();
+
+    private final RunnerBuilder builder;
+
+    private final Class<?>[] classes;
+
+    private final Description description;
+
+    private volatile RunnerScheduler scheduler = new RunnerScheduler() {
+        public void schedule(Runnable childStatement) {
+            childStatement.run();
+        }
+
+        public void finished() {
+            // do nothing
+        }
+    };
+
+    /**
+     * Creates a suite that builds the runners for {@code classes} with
+     * {@code builder}.
+     */
+    public PipelinedSuite(RunnerBuilder builder, Class<?>[] classes) {
+        this.builder = builder;
+        this.classes = classes.clone();
+        // #1320 the suite is not based on a real class, see Computer
+        this.description = Description.createSuiteDescription("classes");
+    }
+
+    /**
+     * Sets a scheduler that determines the order and parallelization
+     * of the test classes.
+     *
+     * @see ParentRunner#setScheduler(RunnerScheduler)
+     */
+    public void setScheduler(RunnerScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Returns the description of this suite. Its children are added while the
+     * suite runs, as soon as their runners have been built.
+     */
+    @Override
+    public Description getDescription() {
+        return description;
+    }
+
+    @Override
+    public void run(RunNotifier notifier) {
+        EachTestNotifier testNotifier = new EachTestNotifier(notifier, description);
+        testNotifier.fireTestSuiteStarted();
+        Discovery discovery = new Discovery();
+        Thread discoveryThread = new Thread(discovery, "PipelinedSuite-discovery");
+        discoveryThread.setDaemon(true);
+        discoveryThread.start();
+        try {
+            runChildren(discovery.runners, notifier);
+        } catch (AssumptionViolatedException e) {
+            testNotifier.addFailedAssumption(e);
+        } catch (StoppedByUserException e) {
+            throw e;
+        } catch (Throwable e) {
+            testNotifier.addFailure(e);
+        } finally {
+            discoveryThread.interrupt();
+            testNotifier.fireTestSuiteFinished();
+        }
+    }
+
+    private void runChildren(BlockingQueue<Runner> runners, RunNotifier notifier)
+            throws InterruptedException {
+        RunnerScheduler currentScheduler = scheduler;
+        try {
+            for (Runner each = runners.take(); each != END_OF_CLASSES; each = runners.take()) {
+                currentScheduler.schedule(new ChildStatement(each, notifier));
+            }
+        } finally {
+            currentScheduler.finished();
+        }
+    }
+
+    private final class Discovery implements Runnable {
+        final BlockingQueue<Runner> runners = new LinkedBlockingQueue<Runner>();
+
+        public void run() {
+            try {
+                for (Class<?> each : classes) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    Runner runner = builder.safeRunnerForClass(each);
+                    if (runner != null) {
+                        description.addChild(runner.getDescription());
+                        runners.add(runner);
+                    }
+                }
+            } catch (Throwable e) {
+                Runner runner = new ErrorReportingRunner(e, classes);
+                description.addChild(runner.getDescription());
+                runners.add(runner);
+            } finally {
+                runners.add(END_OF_CLASSES);
+            }
+        }
+    }
+
+    private static final class ChildStatement implements Runnable, Describable {
+        private final Runner runner;
+
+        private final RunNotifier notifier;
+
+        ChildStatement(Runner runner, RunNotifier notifier) {
+            this.runner = runner;
+            this.notifier = notifier;
+        }
+
+        public void run() {
+            runner.run(notifier);
+        }
+
+        public Description getDescription() {
+            return runner.getDescription();
+        }
+    }
+}
@@ -58,7 +58,7 @@ public class Suite extends ParentRunner<Runner> {
         return annotation.value();
     }
 
-    private final List<Runner> runners;
+    private volatile List<Runner> runners;
 
     /**
      * Called reflectively on classes annotated with <code>@RunWith(Suite.class)</code>
@@ -118,6 +118,11 @@ public class Suite extends ParentRunner<Runner> {
         return runners;
     }
 
+    @Override
+    protected void releaseChildren() {
+        runners = Collections.emptyList();
+    }
+
     @Override
     protected Description describeChild(Runner child) {
         return child.getDescription();
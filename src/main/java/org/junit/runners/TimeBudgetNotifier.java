@@ -0,0 +1,215 @@
+package org.junit.runners;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runner.notification.StoppedByUserException;
+
+/**
+ * The {@link RunNotifier} for the children of a class with an
+ * {@link org.junit.TimeBudget}. It forwards all events until the deadline of
+ * the budget has passed or the class has been
+ * {@link #cutOff(Throwable, Description) cut off}, and discards all events
+ * after that. Closing at the deadline itself ensures that the reactions of the
+ * class to being interrupted are never reported.
+ *
+ * <p>Only the state of the notifier is guarded by its lock; the events are
+ * forwarded without holding it, so that children running in parallel are not
+ * serialized and a cut-off does not wait for slow listeners. An event that
+ * was accepted just before the cut-off may therefore still be forwarded after
+ * the events of the cut-off.
+ */
+final class TimeBudgetNotifier extends RunNotifier {
+    private final RunNotifier delegate;
+
+    // Guarded by this
+    private final Set<Description> startedOrIgnoredTests = new HashSet<Description>();
+
+    // Guarded by this
+    private final Set<Description> runningTests = new LinkedHashSet<Description>();
+
+    // Guarded by this
+    private final List<Description> runningSuites = new ArrayList<Description>();
+
+    // Guarded by this
+    private boolean cutOff = false;
+
+    private volatile Long deadline;
+
+    TimeBudgetNotifier(RunNotifier delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Sets the deadline, as a value of {@link System#nanoTime()}.
+     */
+    void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    // Guarded by this
+    private boolean isClosed() {
+        Long currentDeadline = deadline;
+        return cutOff || (currentDeadline != null && System.nanoTime() - currentDeadline >= 0);
+    }
+
+    /**
+     * Ends the tests and suites that are running with the given failure, and
+     * discards all further events.
+     *
+     * @param cause the failure of the running tests
+     * @param description the description of the class
+     * @return the tests of the class that have neither been started nor ignored
+     */
+    List<Description> cutOff(Throwable cause, Description description) {
+        List<Description> tests;
+        List<Description> suites;
+        List<Description> unrunTests = new ArrayList<Description>();
+        synchronized (this) {
+            cutOff = true;
+            tests = new ArrayList<Description>(runningTests);
+            suites = new ArrayList<Description>(runningSuites);
+            collectUnrunTests(description, unrunTests);
+        }
+        for (Description each : tests) {
+            delegate.fireTestFailure(new Failure(each, cause));
+            delegate.fireTestFinished(each);
+        }
+        for (int i = suites.size() - 1; i >= 0; i--) {
+            delegate.fireTestSuiteFinished(suites.get(i));
+        }
+        return unrunTests;
+    }
+
+    private synchronized boolean isOpen() {
+        return !isClosed();
+    }
+
+    private void collectUnrunTests(Description description, List<Description> unrunTests) {
+        if (description.isTest()) {
+            if (!startedOrIgnoredTests.contains(description)) {
+                unrunTests.add(description);
+            }
+        } else {
+            for (Description each : description.getChildren()) {
+                collectUnrunTests(each, unrunTests);
+            }
+        }
+    }
+
+    @Override
+    public void addListener(RunListener listener) {
+        delegate.addListener(listener);
+    }
+
+    @Override
+    public void removeListener(RunListener listener) {
+        delegate.removeListener(listener);
+    }
+
+    @Override
+    public void addFirstListener(RunListener listener) {
+        delegate.addFirstListener(listener);
+    }
+
+    @Override
+    public void fireTestRunStarted(Description description) {
+        delegate.fireTestRunStarted(description);
+    }
+
+    @Override
+    public void fireTestRunFinished(Result result) {
+        delegate.fireTestRunFinished(result);
+    }
+
+    @Override
+    public void fireTestSuiteStarted(Description description) {
+        synchronized (this) {
+            if (isClosed()) {
+                return;
+            }
+            runningSuites.add(description);
+        }
+        delegate.fireTestSuiteStarted(description);
+    }
+
+    @Override
+    public void fireTestSuiteFinished(Description description) {
+        synchronized (this) {
+            if (isClosed()) {
+                return;
+            }
+            runningSuites.remove(runningSuites.lastIndexOf(description));
+        }
+        delegate.fireTestSuiteFinished(description);
+    }
+
+    @Override
+    public void fireTestStarted(Description description) throws StoppedByUserException {
+        synchronized (this) {
+            if (isClosed()) {
+                throw new StoppedByUserException();
+            }
+            startedOrIgnoredTests.add(description);
+            runningTests.add(description);
+        }
+        try {
+            delegate.fireTestStarted(description);
+        } catch (StoppedByUserException e) {
+            synchronized (this) {
+                startedOrIgnoredTests.remove(description);
+                runningTests.remove(description);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void fireTestFailure(Failure failure) {
+        if (isOpen()) {
+            delegate.fireTestFailure(failure);
+        }
+    }
+
+    @Override
+    public void fireTestAssumptionFailed(Failure failure) {
+        if (isOpen()) {
+            delegate.fireTestAssumptionFailed(failure);
+        }
+    }
+
+    @Override
+    public void fireTestIgnored(Description description) {
+        synchronized (this) {
+            if (isClosed()) {
+                return;
+            }
+            startedOrIgnoredTests.add(description);
+        }
+        delegate.fireTestIgnored(description);
+    }
+
+    @Override
+    public void fireTestFinished(Description description) {
+        synchronized (this) {
+            if (isClosed()) {
+                return;
+            }
+            runningTests.remove(description);
+        }
+        delegate.fireTestFinished(description);
+    }
+
+    @Override
+    public void pleaseStop() {
+        delegate.pleaseStop();
+    }
+}
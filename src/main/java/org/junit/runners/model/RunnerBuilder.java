@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Set;
 
 import org.junit.internal.runners.ErrorReportingRunner;
+import org.junit.internal.runners.LazyRunner;
 import org.junit.runner.Description;
 import org.junit.runner.OrderWith;
 import org.junit.runner.Runner;
@@ -77,6 +78,39 @@ public abstract class RunnerBuilder {
         }
     }
 
+    /**
+     * Returns {@code true} if the runner for {@code testClass} may be built
+     * when it is first needed, rather than when the suite that contains the
+     * class is built. Suites can then drop classes that a filter removes
+     * without building their runners at all. This is only safe if building the
+     * runner does not build runners for other classes with this builder, as
+     * {@link #runners(Class, Class[])} could not detect a suite that contains
+     * itself otherwise, and if {@link #runnerForClass(Class)} never returns
+     * {@code null} for the class.
+     *
+     * <p>The default implementation returns {@code false}.
+     *
+     * @see #buildsRunnersLazily()
+     * @since 4.13.3
+     */
+    public boolean canBuildLazily(Class<?> testClass) {
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if {@link #runners(Class, Class[])} should build the
+     * runners for the classes that {@link #canBuildLazily(Class) can be built
+     * lazily} only when they are first needed. Errors in these classes are then
+     * reported when their runners are built, not when the suite is built.
+     *
+     * <p>The default implementation returns {@code false}.
+     *
+     * @since 4.13.3
+     */
+    protected boolean buildsRunnersLazily() {
+        return false;
+    }
+
     private void configureRunner(Runner runner) throws InvalidOrderingException {
         Description description = runner.getDescription();
         OrderWith orderWith = description.getAnnotation(OrderWith.class);
@@ -101,7 +135,10 @@ public abstract class RunnerBuilder {
      * Constructs and returns a list of Runners, one for each child class in
      * {@code children}.  Care is taken to avoid infinite recursion:
      * this builder will throw an exception if it is requested for another
-     * runner for {@code parent} before this call completes.
+     * runner for {@code parent} before this call completes. If this builder
+     * {@link #buildsRunnersLazily() builds runners lazily}, the runners for
+     * classes that {@link #canBuildLazily(Class) can be built lazily} are only
+     * built when they are first needed.
      */
     public List<Runner> runners(Class<?> parent, Class<?>[] children)
             throws InitializationError {
@@ -121,8 +158,10 @@ public abstract class RunnerBuilder {
 
     private List<Runner> runners(Class<?>[] children) {
         List<Runner> runners = new ArrayList<Runner>();
+        boolean lazily = buildsRunnersLazily();
         for (Class<?> each : children) {
-            Runner childRunner = safeRunnerForClass(each);
+            Runner childRunner = lazily && canBuildLazily(each)
+                    ? new LazyRunner(this, each) : safeRunnerForClass(each);
             if (childRunner != null) {
                 runners.add(childRunner);
             }
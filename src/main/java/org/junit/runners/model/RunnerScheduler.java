@@ -10,7 +10,10 @@ package org.junit.runners.model;
  */
 public interface RunnerScheduler {
     /**
-     * Schedule a child statement to run
+     * Schedule a child statement to run. The child statements of
+     * {@link org.junit.runners.ParentRunner} implement
+     * {@link org.junit.runner.Describable}, so that a scheduler can take the
+     * {@link org.junit.runner.Description} of the child into account.
      */
     void schedule(Runnable childStatement);
 
@@ -0,0 +1,58 @@
+package org.junit.runners.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.runner.Description;
+
+/**
+ * Exception thrown when a test class or suite exceeds its
+ * {@link org.junit.TimeBudget}.
+ *
+ * @since 4.13.3
+ */
+public class TimeBudgetExceededException extends TestTimedOutException {
+    private static final long serialVersionUID = 1L;
+
+    private static final int MAX_LISTED_TESTS = 10;
+
+    private final List<Description> unrunTests;
+
+    /**
+     * Creates an exception with a message that lists the tests that did not run.
+     *
+     * @param budget the time budget of the class
+     * @param timeUnit the time unit for the budget
+     * @param unrunTests the tests of the class that were never started
+     */
+    public TimeBudgetExceededException(long budget, TimeUnit timeUnit,
+            List<Description> unrunTests) {
+        super(message(budget, timeUnit, unrunTests), budget, timeUnit);
+        this.unrunTests = Collections.unmodifiableList(new ArrayList<Description>(unrunTests));
+    }
+
+    private static String message(long budget, TimeUnit timeUnit, List<Description> unrunTests) {
+        StringBuilder message = new StringBuilder(String.format(
+                "time budget of %d %s exceeded", budget, timeUnit.name().toLowerCase()));
+        if (!unrunTests.isEmpty()) {
+            message.append("; ").append(unrunTests.size()).append(" tests did not run: ");
+            int listed = Math.min(unrunTests.size(), MAX_LISTED_TESTS);
+            for (int i = 0; i < listed; i++) {
+                message.append(i == 0 ? "" : ", ").append(unrunTests.get(i).getDisplayName());
+            }
+            if (listed < unrunTests.size()) {
+                message.append(", ...");
+            }
+        }
+        return message.toString();
+    }
+
+    /**
+     * Gets the tests of the class that were never started.
+     */
+    public List<Description> getUnrunTests() {
+        return unrunTests;
+    }
+}
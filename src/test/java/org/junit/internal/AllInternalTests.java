@@ -14,6 +14,7 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({
         AnnotatedBuilderTest.class,
         ChecksTest.class,
+        ClassDependencyGraphTest.class,
         ErrorReportingRunnerTest.class,
         ExpectExceptionTest.class,
         FailOnTimeoutTest.class,
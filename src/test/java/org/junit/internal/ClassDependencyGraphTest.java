@@ -0,0 +1,117 @@
+package org.junit.internal;
+
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ClassDependencyGraphTest {
+    public static class Leaf {
+    }
+
+    public static class Middle {
+        Leaf leaf;
+    }
+
+    public static class Top {
+        public List<Middle> middles() {
+            return null;
+        }
+    }
+
+    public static class Unrelated {
+    }
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void readsReferencesWithoutLoadingClasses() throws Exception {
+        Set<String> references = readReferences(Middle.class);
+
+        assertThat(references, hasItem(Leaf.class.getName()));
+        assertThat(references, hasItem(Object.class.getName()));
+        assertThat(references, not(hasItem(Middle.class.getName())));
+    }
+
+    @Test
+    public void readsReferencesFromSignatures() throws Exception {
+        assertThat(readReferences(Top.class), hasItem(Middle.class.getName()));
+    }
+
+    @Test
+    public void findsTransitivelyDependentClasses() throws Exception {
+        ClassDependencyGraph graph = ClassDependencyGraph.scan(Collections.singletonList(copyClasses()));
+
+        Set<String> dependentClasses = graph.getDependentClasses(Collections.singleton(Leaf.class.getName()));
+
+        assertTrue(dependentClasses.containsAll(Arrays.asList(
+                Leaf.class.getName(), Middle.class.getName(), Top.class.getName())));
+        assertThat(dependentClasses, not(hasItem(Unrelated.class.getName())));
+    }
+
+    @Test
+    public void updatesDeletedClasses() throws Exception {
+        File folder = copyClasses();
+        ClassDependencyGraph graph = ClassDependencyGraph.scan(Collections.singletonList(folder));
+        assertTrue(classFile(folder, Middle.class).delete());
+
+        graph.update(Collections.singleton(Middle.class.getName()));
+
+        assertThat(graph.getClassNames(), not(hasItem(Middle.class.getName())));
+        assertThat(graph.getDependentClasses(Collections.singleton(Leaf.class.getName())),
+                is((Set<String>) new HashSet<String>(Collections.singleton(Leaf.class.getName()))));
+    }
+
+    private static Set<String> readReferences(Class<?> type) throws IOException {
+        InputStream in = type.getResourceAsStream(type.getName().replaceAll(".*\\.", "") + ".class");
+        try {
+            return ClassDependencyGraph.readReferences(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    private File copyClasses() throws IOException {
+        File folder = temporaryFolder.newFolder("classes");
+        for (Class<?> each : new Class<?>[] {Leaf.class, Middle.class, Top.class, Unrelated.class}) {
+            File classFile = classFile(folder, each);
+            classFile.getParentFile().mkdirs();
+            copy(each.getResourceAsStream(classFile.getName()), classFile);
+        }
+        return folder;
+    }
+
+    private static File classFile(File folder, Class<?> type) {
+        return new File(folder, type.getName().replace('.', File.separatorChar) + ".class");
+    }
+
+    private static void copy(InputStream in, File file) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            byte[] buffer = new byte[4096];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                out.write(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+            out.close();
+        }
+    }
+}
@@ -11,6 +11,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
@@ -227,6 +228,62 @@ public class FailOnTimeoutTest {
         assertTrue("the Statement was never run", statementWasExecuted.get());
     }
 
+    @Test
+    public void threadLocalsAreNotCarriedToNextStatement() throws Throwable {
+        final ThreadLocal<String> threadLocal = new ThreadLocal<String>();
+        final AtomicReference<String> valueInNextStatement = new AtomicReference<String>("not run");
+        failAfter50Ms(new Statement() {
+            @Override
+            public void evaluate() {
+                threadLocal.set("first statement");
+            }
+        }).evaluate();
+
+        failAfter50Ms(new Statement() {
+            @Override
+            public void evaluate() {
+                valueInNextStatement.set(threadLocal.get());
+            }
+        }).evaluate();
+
+        assertNull(valueInNextStatement.get());
+    }
+
+    @Test
+    public void inheritableThreadLocalsHaveTheCurrentValueOfTheCaller() throws Throwable {
+        final InheritableThreadLocal<String> threadLocal = new InheritableThreadLocal<String>();
+        final AtomicReference<String> value = new AtomicReference<String>();
+        Statement statement = new Statement() {
+            @Override
+            public void evaluate() {
+                value.set(threadLocal.get());
+            }
+        };
+        threadLocal.set("first");
+        failAfter50Ms(statement).evaluate();
+        threadLocal.set("second");
+        failAfter50Ms(statement).evaluate();
+
+        assertEquals("second", value.get());
+    }
+
+    @Test
+    public void statementIsNotInterruptedByTimeoutOfPreviousStatement() throws Throwable {
+        assertThrows(
+                TestTimedOutException.class,
+                run(failAfter50Ms(new RunForASecond())));
+        final AtomicBoolean interrupted = new AtomicBoolean();
+
+        failAfter50Ms(new Statement() {
+            @Override
+            public void evaluate() {
+                interrupted.set(currentThread().isInterrupted());
+            }
+        }).evaluate();
+
+        assertFalse("statement started with the interrupt of a timeout", interrupted.get());
+    }
+
     private FailOnTimeout failAfter50Ms(Statement statement) {
         return FailOnTimeout.builder()
                 .withTimeout(50, MILLISECONDS)
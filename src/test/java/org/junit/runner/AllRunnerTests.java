@@ -8,11 +8,18 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses({
         AllNotificationTests.class,
+        ChangeBasedSelectionTest.class,
+        CheckpointTest.class,
+        FailFastTest.class,
         FilterFactoriesTest.class,
         FilterOptionIntegrationTest.class,
+        ForkedWorkerPoolTest.class,
         OrderWithValidatorTest.class,
+        PipelinedDiscoveryTest.class,
         JUnitCommandLineParseResultTest.class,
-        JUnitCoreTest.class, RequestTest.class
+        JUnitDaemonTest.class,
+        JUnitCoreTest.class, RequestTest.class,
+        WatchModeTest.class
 })
 public class AllRunnerTests {
 }
@@ -0,0 +1,149 @@
+package org.junit.runner;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.notification.Failure;
+
+public class ChangeBasedSelectionTest {
+    public static class Dependency {
+        static int answer() {
+            return 42;
+        }
+    }
+
+    public static class DependentTest {
+        @Test
+        public void usesDependency() {
+            assertThat(Dependency.answer(), is(42));
+        }
+    }
+
+    public static class IndependentTest {
+        @Test
+        public void usesNothing() {
+        }
+    }
+
+    private static final List<String> TEST_CLASSES = Arrays.asList(
+            IndependentTest.class.getName(), DependentTest.class.getName());
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File folder;
+
+    @Before
+    public void copyClassFiles() throws IOException {
+        // without the outer class, through which every class of this file
+        // would depend on every other one
+        folder = temporaryFolder.newFolder("classes");
+        for (Class<?> each : new Class<?>[] {Dependency.class, DependentTest.class, IndependentTest.class}) {
+            File classFile = classFile(each);
+            classFile.getParentFile().mkdirs();
+            copy(each.getResourceAsStream(classFile.getName()), classFile);
+        }
+    }
+
+    @Test
+    public void selectsTestClassesThatDependOnChangedClasses() throws Exception {
+        ChangeBasedSelection selection = ChangeBasedSelection.scan(Collections.singletonList(folder));
+
+        List<String> selected = selection.selectTestClasses(TEST_CLASSES,
+                Collections.singleton(Dependency.class.getName()));
+
+        assertThat(selected, is(Collections.singletonList(DependentTest.class.getName())));
+    }
+
+    @Test
+    public void selectsTestClassesOutsideTheClassFolders() throws Exception {
+        ChangeBasedSelection selection = ChangeBasedSelection.scan(Collections.singletonList(folder));
+
+        List<String> selected = selection.selectTestClasses(
+                Arrays.asList(IndependentTest.class.getName(), "org.example.UnknownTest"),
+                Collections.singleton(Dependency.class.getName()));
+
+        assertThat(selected, is(Collections.singletonList("org.example.UnknownTest")));
+    }
+
+    @Test
+    public void findsClassesChangedSinceStateWasSaved() throws Exception {
+        File stateFile = new File(temporaryFolder.getRoot(), "state");
+        ChangeBasedSelection selection = ChangeBasedSelection.scan(Collections.singletonList(folder));
+        assertThat(selection.getClassesChangedSince(stateFile).size(), is(3));
+        selection.saveState(stateFile);
+
+        File classFile = classFile(Dependency.class);
+        assertTrue(classFile.setLastModified(classFile.lastModified() + 2000));
+        Set<String> changed = ChangeBasedSelection.scan(Collections.singletonList(folder))
+                .getClassesChangedSince(stateFile);
+
+        assertThat(changed, is((Set<String>) new HashSet<String>(
+                Collections.singleton(Dependency.class.getName()))));
+    }
+
+    @Test
+    public void runsOnlySelectedTestClasses() throws Exception {
+        ChangeBasedSelection selection = ChangeBasedSelection.scan(Collections.singletonList(folder));
+
+        Request request = selection.createRequest(new Computer(), TEST_CLASSES,
+                Collections.singleton(Dependency.class.getName()));
+        Result result = new JUnitCore().run(request);
+
+        assertThat(result.getRunCount(), is(1));
+        assertThat(result.getFailureCount(), is(0));
+    }
+
+    @Test
+    public void savesStateOnlyAfterSuccessfulRun() throws Exception {
+        File stateFile = new File(temporaryFolder.getRoot(), "state");
+        ChangeBasedSelection selection = ChangeBasedSelection.scan(Collections.singletonList(folder));
+
+        selection.createStateRecorder(stateFile).testRunFinished(resultWithFailure());
+        assertThat(stateFile.exists(), is(false));
+
+        selection.createStateRecorder(stateFile).testRunFinished(new Result());
+        assertThat(stateFile.exists(), is(true));
+    }
+
+    private static Result resultWithFailure() throws Exception {
+        Result result = new Result();
+        result.createListener().testFailure(new Failure(
+                Description.createTestDescription(DependentTest.class, "usesDependency"),
+                new AssertionError()));
+        return result;
+    }
+
+    private File classFile(Class<?> type) {
+        return new File(folder, type.getName().replace('.', File.separatorChar) + ".class");
+    }
+
+    private static void copy(InputStream in, File file) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            byte[] buffer = new byte[4096];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                out.write(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+            out.close();
+        }
+    }
+}
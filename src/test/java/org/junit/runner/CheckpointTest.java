@@ -0,0 +1,153 @@
+package org.junit.runner;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.tests.TestSystem;
+
+public class CheckpointTest {
+    private static final List<String> testsRun = Collections.synchronizedList(new ArrayList<String>());
+
+    public static class Outcomes {
+        @Test
+        public void passing() {
+            testsRun.add("passing");
+        }
+
+        @Test
+        public void failing() {
+            testsRun.add("failing");
+            fail("expected failure");
+        }
+
+        @Test
+        public void skipped() {
+            testsRun.add("skipped");
+            assumeTrue(false);
+        }
+
+        @Ignore
+        @Test
+        public void ignored() {
+        }
+    }
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File checkpoint;
+
+    @Before
+    public void createCheckpoint() {
+        checkpoint = new File(temporaryFolder.getRoot(), "checkpoint");
+        testsRun.clear();
+    }
+
+    @Test
+    public void appendsOutcomeOfEachTest() throws Exception {
+        JUnitCore core = new JUnitCore();
+        core.setCheckpoint(checkpoint);
+        core.run(Outcomes.class);
+
+        List<String> outcomes = new ArrayList<String>();
+        for (String each : readLines()) {
+            outcomes.add(each.replaceAll("\t.*\t", " "));
+        }
+        Collections.sort(outcomes);
+        assertEquals(Arrays.asList(
+                "failed failing(" + Outcomes.class.getName() + ")",
+                "ignored ignored(" + Outcomes.class.getName() + ")",
+                "passed passing(" + Outcomes.class.getName() + ")",
+                "skipped skipped(" + Outcomes.class.getName() + ")"), outcomes);
+    }
+
+    @Test
+    public void resumedRunSkipsPassedTestsAndCountsThem() throws Exception {
+        writeLines("passed\t7\tpassing(" + Outcomes.class.getName() + ")",
+                "passed\t3\tfailing(" + Outcomes.class.getName() + ")",
+                "failed\t3\tfailing(" + Outcomes.class.getName() + ")");
+        JUnitCore core = new JUnitCore();
+        core.setCheckpoint(checkpoint);
+        core.setResumeFromCheckpoint(true);
+        Result result = core.run(Outcomes.class);
+
+        assertThat(testsRun.contains("passing"), is(false));
+        assertThat(testsRun.contains("failing"), is(true));
+        assertThat(result.getRunCount(), is(3));
+        assertThat(result.getFailureCount(), is(1));
+        assertTrue(result.getRunTime() >= 7);
+        assertThat(readLines().size(), is(3 + 3));
+    }
+
+    @Test
+    public void resumesFromCommandLine() throws Exception {
+        new JUnitCore().runMain(new TestSystem(),
+                "--checkpoint=" + checkpoint, Outcomes.class.getName());
+        testsRun.clear();
+
+        Result result = new JUnitCore().runMain(new TestSystem(),
+                "--checkpoint=" + checkpoint, "--resume", Outcomes.class.getName());
+
+        Collections.sort(testsRun);
+        assertThat(testsRun, is(Arrays.asList("failing", "skipped")));
+        assertThat(result.getRunCount(), is(3));
+    }
+
+    @Test
+    public void resumeWithoutCheckpointRunsAllTests() {
+        JUnitCore core = new JUnitCore();
+        core.setCheckpoint(checkpoint);
+        core.setResumeFromCheckpoint(true);
+        Result result = core.run(Outcomes.class);
+
+        assertThat(result.getRunCount(), is(3));
+        assertTrue(checkpoint.isFile());
+    }
+
+    private List<String> readLines() throws IOException {
+        List<String> lines = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(checkpoint), "UTF-8"));
+        try {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lines.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+
+    private void writeLines(String... lines) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(checkpoint), "UTF-8");
+        try {
+            for (String each : lines) {
+                writer.write(each + "\n");
+            }
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.junit.runner;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.runners.MethodSorters;
+
+public class FailFastTest {
+    private static volatile CountDownLatch fSleeping;
+
+    @FixMethodOrder(MethodSorters.NAME_ASCENDING)
+    public static class FirstTestFails {
+        @Test
+        public void a() {
+            fail("first");
+        }
+
+        @Test
+        public void b() {
+        }
+
+        @Test
+        public void c() {
+        }
+    }
+
+    public static class FailureWhileAnotherTestSleeps {
+        @Test
+        public void fails() throws InterruptedException {
+            fSleeping.await(10, TimeUnit.SECONDS);
+            fail("failure");
+        }
+
+        @Test
+        public void sleeps() throws InterruptedException {
+            fSleeping.countDown();
+            Thread.sleep(10000);
+        }
+    }
+
+    @Before
+    public void init() {
+        fSleeping = new CountDownLatch(1);
+    }
+
+    @Test
+    public void stopsAtFirstFailure() {
+        JUnitCore core = new JUnitCore();
+        core.setFailFast(true);
+
+        Result result = core.run(FirstTestFails.class);
+
+        assertThat(result.getRunCount(), is(1));
+        assertThat(result.getFailureCount(), is(1));
+        assertThat(result.getCancelledCount(), is(0));
+        assertThat(result.getNotStartedCount(), is(2));
+    }
+
+    @Test
+    public void laterRunsOfSameCoreAreNotStopped() {
+        JUnitCore core = new JUnitCore();
+        core.setFailFast(true);
+        core.run(FirstTestFails.class);
+
+        Result result = core.run(FirstTestFails.class);
+
+        assertThat(result.getRunCount(), is(1));
+        assertThat(result.getFailureCount(), is(1));
+        assertThat(result.getNotStartedCount(), is(2));
+
+        core.setFailFast(false);
+        assertThat(core.run(FirstTestFails.class).getRunCount(), is(3));
+    }
+
+    @Test
+    public void runsAllTestsWithoutFailFast() {
+        Result result = new JUnitCore().run(FirstTestFails.class);
+
+        assertThat(result.getRunCount(), is(3));
+        assertThat(result.getNotStartedCount(), is(0));
+    }
+
+    @Test(timeout = 5000)
+    public void interruptsTestsRunningInParallel() {
+        JUnitCore core = new JUnitCore();
+        core.setFailFast(true);
+
+        Result result = core.run(new ParallelComputer(false, true, 2),
+                FailureWhileAnotherTestSleeps.class);
+
+        assertThat(result.getFailureCount(), is(1));
+        assertThat(result.getFailures().get(0).getMessage(), is("failure"));
+        assertThat(result.getCancelledCount(), is(1));
+        assertThat(result.getNotStartedCount(), is(0));
+    }
+}
@@ -34,6 +34,14 @@ public class FilterFactoriesTest {
         assertThat(filter.describe(), startsWith("excludes "));
     }
 
+    @Test
+    public void shouldCreateBuiltInFilterByShortName() throws Exception {
+        Filter filter = FilterFactories.createFilterFromFilterSpec(
+                createSuiteRequest(), "shard=2/8");
+
+        assertThat(filter.describe(), is("shard 2 of 8"));
+    }
+
     @Test
     public void shouldCreateFilterWithNoArguments() throws Exception {
         Filter filter = FilterFactories.createFilterFromFilterSpec(
@@ -0,0 +1,191 @@
+package org.junit.runner;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.manipulation.Filter;
+import org.junit.tests.TestSystem;
+
+public class ForkedWorkerPoolTest {
+    public static class Singleton {
+        private static boolean claimed = false;
+
+        static void claim() {
+            assertFalse("singleton already claimed in this JVM", claimed);
+            claimed = true;
+        }
+    }
+
+    public static class FirstUserOfSingleton {
+        @Test
+        public void claimSingleton() {
+            Singleton.claim();
+        }
+    }
+
+    public static class SecondUserOfSingleton {
+        @Test
+        public void claimSingleton() {
+            Singleton.claim();
+        }
+
+        @Test
+        public void anotherTest() {
+        }
+    }
+
+    public static class Failing {
+        @Test
+        public void failing() {
+            fail("expected failure");
+        }
+    }
+
+    public static class FirstPassing {
+        @Test
+        public void first() {
+        }
+    }
+
+    public static class SecondPassing {
+        @Test
+        public void second() {
+        }
+    }
+
+    public static class OnlyAnotherTest implements FilterFactory {
+        public Filter createFilter(FilterFactoryParams params) {
+            return new Filter() {
+                @Override
+                public boolean shouldRun(Description description) {
+                    return !description.isTest() || "anotherTest".equals(description.getMethodName());
+                }
+
+                @Override
+                public String describe() {
+                    return "only anotherTest";
+                }
+            };
+        }
+    }
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void mergesEventsOfAllWorkersIntoOneResult() {
+        Result result = runMain("--workers=2",
+                FirstUserOfSingleton.class.getName(), Failing.class.getName());
+
+        assertThat(result.getRunCount(), is(2));
+        assertThat(result.getFailureCount(), is(1));
+        assertThat(result.getFailures().get(0).getMessage(), is("expected failure"));
+    }
+
+    @Test
+    public void recyclesWorkersAfterConfiguredNumberOfClasses() {
+        Result result = runMain("--workers=1", "--classes-per-worker=1",
+                FirstUserOfSingleton.class.getName(), SecondUserOfSingleton.class.getName());
+
+        assertThat(result.getRunCount(), is(3));
+        assertThat(result.getFailureCount(), is(0));
+    }
+
+    @Test
+    public void reusesWorkersByDefault() {
+        Result result = runMain("--workers=1",
+                FirstUserOfSingleton.class.getName(), SecondUserOfSingleton.class.getName());
+
+        assertThat(result.getFailureCount(), is(1));
+        assertThat(result.getFailures().get(0).getMessage(),
+                containsString("singleton already claimed"));
+    }
+
+    @Test
+    public void appliesFiltersInWorkers() {
+        Result result = runMain("--workers=2",
+                "--filter=" + OnlyAnotherTest.class.getName(),
+                FirstUserOfSingleton.class.getName(), SecondUserOfSingleton.class.getName());
+
+        assertThat(result.getRunCount(), is(1));
+    }
+
+    @Test
+    public void describesFilteredTestsOfWorkersBeforeTheyRun() {
+        ForkedWorkerPool pool = new ForkedWorkerPool(
+                Arrays.<Class<?>>asList(FirstUserOfSingleton.class, SecondUserOfSingleton.class),
+                Collections.singletonList(OnlyAnotherTest.class.getName()), 2, 0);
+
+        assertThat(pool.getDescription().testCount(), is(1));
+        Result result = new JUnitCore().run(pool);
+        assertThat(result.getRunCount(), is(1));
+        assertThat(result.getNotStartedCount(), is(0));
+    }
+
+    @Test
+    public void shardsTestsOfWorkersLikeInProcessRun() {
+        String[] classes = {FirstPassing.class.getName(), SecondPassing.class.getName(),
+                Failing.class.getName()};
+        int total = 0;
+        for (int shard = 1; shard <= 2; shard++) {
+            String filter = "--filter=shard=" + shard + "/2";
+            Result forked = runMain(concat(new String[] {"--workers=2", filter}, classes));
+            Result inProcess = runMain(concat(new String[] {filter}, classes));
+
+            assertThat(forked.getRunCount(), is(inProcess.getRunCount()));
+            assertThat(forked.getFailureCount(), is(inProcess.getFailureCount()));
+            total += forked.getRunCount();
+        }
+        assertThat(total, is(classes.length));
+    }
+
+    @Test
+    public void rejectsShardsPackedByHistory() {
+        Result result = runMain("--workers=2", "--filter=shard=1/2,history=MaxCore.ser",
+                FirstPassing.class.getName(), SecondPassing.class.getName());
+
+        assertThat(result.getFailureCount(), is(1));
+        assertThat(result.getFailures().get(0).getMessage(), containsString("history="));
+    }
+
+    @Test
+    public void createsClassDataSharingArchiveForWorkers() {
+        String javaVersion = System.getProperty("java.specification.version");
+        assumeTrue(!javaVersion.startsWith("1.") && !javaVersion.equals("9"));
+        File archive = new File(temporaryFolder.getRoot(), "junit.jsa");
+
+        Result recordingResult = runMain("--cds-archive=" + archive,
+                FirstUserOfSingleton.class.getName(), SecondUserOfSingleton.class.getName());
+        assertThat(recordingResult.getFailureCount(), is(1));
+        assertTrue(archive.isFile());
+        assertTrue(ClassDataSharing.classList(archive).isFile());
+
+        Result result = runMain("--cds-archive=" + archive, "--workers=2",
+                FirstUserOfSingleton.class.getName(), SecondUserOfSingleton.class.getName());
+        assertThat(result.getRunCount(), is(3));
+        assertThat(result.getFailureCount(), is(0));
+    }
+
+    private Result runMain(String... args) {
+        return new JUnitCore().runMain(new TestSystem(), args);
+    }
+
+    private static String[] concat(String[] first, String[] second) {
+        String[] result = new String[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
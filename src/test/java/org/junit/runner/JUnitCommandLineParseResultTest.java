@@ -5,10 +5,14 @@ import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 import org.junit.experimental.categories.IncludeCategories;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.manipulation.Filter;
@@ -104,6 +108,131 @@ public class JUnitCommandLineParseResultTest {
         assertThat(description.toString(), containsString("initializationError"));
     }
 
+    @Test
+    public void shouldParseWorkerOptions() throws Exception {
+        jUnitCommandLineParseResult.parseOptions("--workers=4", "--classes-per-worker=50");
+
+        assertThat(jUnitCommandLineParseResult.getWorkers(), is(4));
+        assertThat(jUnitCommandLineParseResult.getClassesPerWorker(), is(50));
+    }
+
+    @Test
+    public void shouldParseFailFastOption() throws Exception {
+        jUnitCommandLineParseResult.parseOptions("--fail-fast");
+
+        assertThat(jUnitCommandLineParseResult.isFailFast(), is(true));
+    }
+
+    @Test
+    public void shouldParseLowMemoryOption() throws Exception {
+        jUnitCommandLineParseResult.parseOptions("--low-memory");
+
+        assertThat(jUnitCommandLineParseResult.isLowMemory(), is(true));
+    }
+
+    @Test
+    public void shouldParseLazyConstructionOption() throws Exception {
+        jUnitCommandLineParseResult.parseOptions("--lazy-construction");
+
+        assertThat(jUnitCommandLineParseResult.isLazyConstruction(), is(true));
+    }
+
+    @Test
+    public void shouldParseParallelConstructionOption() throws Exception {
+        jUnitCommandLineParseResult.parseOptions("--parallel-construction");
+
+        assertThat(jUnitCommandLineParseResult.isParallelConstruction(), is(true));
+    }
+
+    @Test
+    public void shouldParseDaemonOption() throws Exception {
+        jUnitCommandLineParseResult.parseOptions("--daemon=4711");
+
+        assertThat(jUnitCommandLineParseResult.getDaemonPort(), is(4711));
+    }
+
+    @Test
+    public void shouldForwardArgumentsToDaemonWithoutLoadingClasses() throws Exception {
+        JUnitCommandLineParseResult result = JUnitCommandLineParseResult.parse(new String[]{
+                "--fail-fast", "--connect=4711", "UnknownTestClass"
+        });
+
+        assertThat(result.getConnectPort(), is(4711));
+        assertThat(result.getForwardedArgs(), is(Arrays.asList("--fail-fast", "UnknownTestClass")));
+        assertThat(result.getClasses().isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldParseCdsArchiveOption() throws Exception {
+        jUnitCommandLineParseResult.parseOptions("--cds-archive=build/junit.jsa");
+
+        assertThat(jUnitCommandLineParseResult.getCdsArchive(), is(new File("build/junit.jsa")));
+    }
+
+    @Test
+    public void shouldParseCheckpointOptions() throws Exception {
+        JUnitCommandLineParseResult result = JUnitCommandLineParseResult.parse(new String[]{
+                "--checkpoint=build/checkpoint", "--resume"
+        });
+
+        assertThat(result.getCheckpoint(), is(new File("build/checkpoint")));
+        assertThat(result.isResume(), is(true));
+    }
+
+    @Test
+    public void shouldCreateFailureUponResumeWithoutCheckpoint() throws Exception {
+        JUnitCommandLineParseResult result = JUnitCommandLineParseResult.parse(new String[]{
+                "--resume", DummyTest.class.getName()
+        });
+
+        Runner runner = result.createRequest(new Computer()).getRunner();
+        Description description = runner.getDescription().getChildren().get(0);
+
+        assertThat(description.toString(), containsString("initializationError"));
+    }
+
+    @Test
+    public void shouldParseChangedClassesOptions() throws Exception {
+        jUnitCommandLineParseResult.parseOptions(
+                "--changed=org.example.A,org.example.B", "--changed-since=build/classes.state");
+
+        assertThat(jUnitCommandLineParseResult.getChangedClasses(),
+                is(Arrays.asList("org.example.A", "org.example.B")));
+        assertThat(jUnitCommandLineParseResult.getChangedSince(), is(new File("build/classes.state")));
+    }
+
+    @Test
+    public void shouldKeepOptionsOtherThanWatch() throws Exception {
+        JUnitCommandLineParseResult result = JUnitCommandLineParseResult.parse(new String[]{
+                "--watch", "--filter", "includecategories=Fast", "--fail-fast", "--",
+                DummyTest.class.getName()
+        });
+
+        assertThat(result.isWatch(), is(true));
+        assertThat(result.getOptionArgs(), is(Arrays.asList(
+                "--filter", "includecategories=Fast", "--fail-fast")));
+    }
+
+    @Test
+    public void shouldCreateFailureUponInvalidNumberOfWorkers() throws Exception {
+        jUnitCommandLineParseResult.parseOptions("--workers=many");
+
+        Runner runner = jUnitCommandLineParseResult.createRequest(new Computer()).getRunner();
+        Description description = runner.getDescription().getChildren().get(0);
+
+        assertThat(description.toString(), containsString("initializationError"));
+    }
+
+    @Test
+    public void shouldCreateFailureUponShardWithHistoryAndWorkers() throws Exception {
+        jUnitCommandLineParseResult.parseOptions("--workers=2", "--filter=shard=1/2,history=MaxCore.ser");
+
+        Runner runner = jUnitCommandLineParseResult.createRequest(new Computer()).getRunner();
+        Description description = runner.getDescription().getChildren().get(0);
+
+        assertThat(description.toString(), containsString("initializationError"));
+    }
+
     @Test
     public void shouldAddToClasses() {
         jUnitCommandLineParseResult.parseParameters(new String[]{
@@ -116,6 +245,42 @@ public class JUnitCommandLineParseResultTest {
         assertThat(testClass.getName(), is(DummyTest.class.getName()));
     }
 
+    @Test
+    public void shouldKeepOrderOfClasses() {
+        jUnitCommandLineParseResult.parseParameters(new String[]{
+                DummyTest.class.getName(), JUnitCommandLineParseResultTest.class.getName(),
+                "UnknownTestClass", FilterFactoryStub.class.getName()
+        });
+
+        List<Class<?>> classes = jUnitCommandLineParseResult.getClasses();
+
+        assertThat(classes, is(Arrays.<Class<?>>asList(DummyTest.class,
+                JUnitCommandLineParseResultTest.class, FilterFactoryStub.class)));
+    }
+
+    @Test
+    public void shouldNotInitializeClasses() {
+        jUnitCommandLineParseResult.parseParameters(new String[]{
+                TestWithStaticInitializer.class.getName()
+        });
+
+        assertThat(jUnitCommandLineParseResult.getClasses().size(), is(1));
+        assertThat(initializedClasses.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldNotInitializeClassesThatAreFilteredOut() {
+        String[] restOfArgs = jUnitCommandLineParseResult.parseOptions(
+                "--filter=" + IncludeCategories.class.getName() + "=" + DummyCategory0.class.getName(),
+                CategorizedTest.class.getName(), FilteredOutTestWithStaticInitializer.class.getName());
+        jUnitCommandLineParseResult.parseParameters(restOfArgs);
+
+        Result result = new JUnitCore().run(jUnitCommandLineParseResult.createRequest(new Computer()));
+
+        assertThat(result.getRunCount(), is(1));
+        assertThat(initializedClasses.isEmpty(), is(true));
+    }
+
     @Test
     public void shouldCreateFailureUponUnknownTestClass() throws Exception {
         String unknownTestClass = "UnknownTestClass";
@@ -143,4 +308,33 @@ public class JUnitCommandLineParseResultTest {
         public void dummyTest() {
         }
     }
+
+    private static final List<Class<?>> initializedClasses = new ArrayList<Class<?>>();
+
+    public static class TestWithStaticInitializer {
+        static {
+            initializedClasses.add(TestWithStaticInitializer.class);
+        }
+
+        @Test
+        public void dummyTest() {
+        }
+    }
+
+    public static class FilteredOutTestWithStaticInitializer {
+        static {
+            initializedClasses.add(FilteredOutTestWithStaticInitializer.class);
+        }
+
+        @Test
+        public void dummyTest() {
+        }
+    }
+
+    @Category(DummyCategory0.class)
+    public static class CategorizedTest {
+        @Test
+        public void dummyTest() {
+        }
+    }
 }
@@ -0,0 +1,114 @@
+package org.junit.runner;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.fail;
+
+import java.net.URL;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.tests.TestSystem;
+
+public class JUnitDaemonTest {
+    public static class Counting {
+        private static int runs = 0;
+
+        @Test
+        public void runsOnFreshClass() {
+            assertEquals(1, ++runs);
+        }
+
+        @Test
+        public void isLoadedForTheRun() {
+            assertNotSame(Test.class.getClassLoader(), getClass().getClassLoader());
+        }
+    }
+
+    public static class Printing {
+        @Test
+        public void printsAndFails() {
+            System.out.println("printed by the test");
+            fail("expected failure");
+        }
+    }
+
+    private JUnitDaemon daemon;
+
+    private Thread daemonThread;
+
+    @Before
+    public void startDaemon() throws Exception {
+        URL testClasses = JUnitDaemonTest.class.getProtectionDomain().getCodeSource().getLocation();
+        daemon = new JUnitDaemon(0, JUnitDaemonTest.class.getClassLoader(), new URL[] {testClasses});
+        daemonThread = new Thread("JUnitDaemonTest-daemon") {
+            @Override
+            public void run() {
+                try {
+                    daemon.serve();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        daemonThread.start();
+    }
+
+    @After
+    public void stopDaemon() throws Exception {
+        daemon.close();
+        daemonThread.join();
+    }
+
+    @Test
+    public void runsTestsInDaemon() {
+        Result result = runMain(Counting.class.getName());
+
+        assertThat(result.getRunCount(), is(2));
+        assertThat(result.getFailureCount(), is(0));
+    }
+
+    @Test
+    public void loadsTestClassesAgainForEachRun() {
+        runMain(Counting.class.getName());
+        Result result = runMain(Counting.class.getName());
+
+        assertThat(result.getFailureCount(), is(0));
+    }
+
+    @Test
+    public void streamsFailuresAndOutputToClient() {
+        TestSystem system = new TestSystem();
+        Result result = new JUnitCore().runMain(system,
+                "--connect=" + daemon.getPort(), Printing.class.getName());
+
+        assertThat(result.getRunCount(), is(1));
+        assertThat(result.getFailures().get(0).getMessage(), is("expected failure"));
+        assertThat(system.outContents().toString(), containsString("printed by the test"));
+    }
+
+    @Test
+    public void appliesOptionsInDaemon() {
+        Result result = runMain("--fail-fast", Printing.class.getName(), Counting.class.getName());
+
+        assertThat(result.getRunCount(), is(1));
+    }
+
+    @Test
+    public void reportsUnknownClasses() {
+        Result result = runMain("UnknownTestClass");
+
+        assertThat(result.getFailureCount(), is(1));
+    }
+
+    private Result runMain(String... args) {
+        String[] clientArgs = new String[args.length + 1];
+        clientArgs[0] = "--connect=" + daemon.getPort();
+        System.arraycopy(args, 0, clientArgs, 1, args.length);
+        return new JUnitCore().runMain(new TestSystem(), clientArgs);
+    }
+}
@@ -0,0 +1,93 @@
+package org.junit.runner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.runner.notification.RunListener;
+import org.junit.runners.BlockJUnit4ClassRunner;
+import org.junit.runners.model.InitializationError;
+
+public class PipelinedDiscoveryTest {
+    private static volatile CountDownLatch firstTestRan;
+
+    private static volatile boolean builtAfterFirstTest;
+
+    public static class First {
+        @Test
+        public void first() {
+            firstTestRan.countDown();
+        }
+    }
+
+    public static class SlowToBuildRunner extends BlockJUnit4ClassRunner {
+        public SlowToBuildRunner(Class<?> testClass) throws InitializationError, InterruptedException {
+            super(testClass);
+            builtAfterFirstTest = firstTestRan.await(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @RunWith(SlowToBuildRunner.class)
+    public static class SlowToBuild {
+        @Test
+        public void second() {
+        }
+
+        @Test
+        public void third() {
+        }
+    }
+
+    public static class WithoutTests {
+    }
+
+    private JUnitCore pipelinedCore() {
+        firstTestRan = new CountDownLatch(1);
+        builtAfterFirstTest = false;
+        JUnitCore core = new JUnitCore();
+        core.setPipelinedDiscovery(true);
+        return core;
+    }
+
+    @Test
+    public void runsFirstClassWhileLaterClassesAreBuilt() {
+        Result result = pipelinedCore().run(new Computer(), First.class, SlowToBuild.class);
+        assertTrue(builtAfterFirstTest);
+        assertEquals(3, result.getRunCount());
+        assertTrue(result.wasSuccessful());
+    }
+
+    @Test
+    public void completesDescriptionPassedToTestRunStarted() {
+        JUnitCore core = pipelinedCore();
+        final Description[] started = new Description[1];
+        core.addListener(new RunListener() {
+            @Override
+            public void testRunStarted(Description description) {
+                started[0] = description;
+            }
+        });
+        Result result = core.run(new Computer(), First.class, SlowToBuild.class);
+        assertEquals(3, started[0].testCount());
+        assertEquals(0, result.getNotStartedCount());
+    }
+
+    @Test
+    public void reportsClassesThatCannotBeBuilt() {
+        Result result = pipelinedCore().run(new Computer(), WithoutTests.class, First.class);
+        assertEquals(1, result.getFailureCount());
+        assertEquals(2, result.getRunCount());
+    }
+
+    @Test
+    public void runsClassesInParallel() {
+        Result result = pipelinedCore().run(ParallelComputer.classes(), First.class, SlowToBuild.class);
+        assertTrue(builtAfterFirstTest);
+        assertEquals(3, result.getRunCount());
+        assertTrue(result.wasSuccessful());
+    }
+}
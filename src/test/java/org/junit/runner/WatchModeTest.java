@@ -0,0 +1,144 @@
+package org.junit.runner;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.tests.TestSystem;
+
+public class WatchModeTest {
+    public static class Dependency {
+        static boolean works() {
+            return true;
+        }
+    }
+
+    public static class WatchedTest {
+        @Test
+        public void usesDependency() {
+            assertTrue(Dependency.works());
+        }
+    }
+
+    /**
+     * A class that the watched tests do not depend on. It is named rather
+     * than referenced, because any reference from this file would make the
+     * watched tests depend on it, through their outer class.
+     */
+    private static final String UNRELATED_CLASS = "org.junit.runner.RunnerSpy";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final TestSystem system = new TestSystem();
+
+    private File folder;
+
+    private Thread watchThread;
+
+    private volatile Result result;
+
+    @Before
+    public void startWatching() throws Exception {
+        folder = temporaryFolder.newFolder("classes");
+        for (String each : new String[] {WatchModeTest.class.getName(), Dependency.class.getName(),
+                WatchedTest.class.getName(), UNRELATED_CLASS}) {
+            File classFile = classFile(each);
+            classFile.getParentFile().mkdirs();
+            copy(getClass().getResourceAsStream(classFile.getName()), classFile);
+        }
+        final JUnitCommandLineParseResult parseResult = JUnitCommandLineParseResult.parse(
+                new String[] {"--watch", WatchedTest.class.getName()});
+        watchThread = new Thread("WatchModeTest-watch") {
+            @Override
+            public void run() {
+                result = new JUnitCore().watch(system, parseResult, Collections.singletonList(folder));
+            }
+        };
+        watchThread.start();
+        awaitOutput("Watching");
+    }
+
+    @After
+    public void stopWatching() throws Exception {
+        watchThread.interrupt();
+        watchThread.join();
+    }
+
+    @Test
+    public void runsTestsAgainWhenDependencyChanges() throws Exception {
+        touch(Dependency.class.getName());
+        awaitOutput("Watching", "OK (1 test)");
+
+        watchThread.interrupt();
+        watchThread.join();
+        assertThat(result.getRunCount(), is(1));
+        assertThat(result.getFailureCount(), is(0));
+    }
+
+    @Test
+    public void doesNotRunTestsWhenUnrelatedClassChanges() throws Exception {
+        touch(UNRELATED_CLASS);
+
+        awaitOutput("No tests depend on [" + UNRELATED_CLASS + "]");
+    }
+
+    private void touch(String className) {
+        File classFile = classFile(className);
+        assertTrue(classFile.setLastModified(classFile.lastModified() + 2000));
+    }
+
+    private void awaitOutput(String... expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!containsInOrder(system.outContents().toString(), expected)) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Output does not contain " + Arrays.asList(expected) + ": "
+                        + system.outContents());
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private static boolean containsInOrder(String output, String... expected) {
+        int from = 0;
+        for (String each : expected) {
+            int index = output.indexOf(each, from);
+            if (index < 0) {
+                return false;
+            }
+            from = index + each.length();
+        }
+        return true;
+    }
+
+    private File classFile(String className) {
+        return new File(folder, className.replace('.', File.separatorChar) + ".class");
+    }
+
+    private static void copy(InputStream in, File file) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            byte[] buffer = new byte[4096];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                out.write(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+            out.close();
+        }
+    }
+}
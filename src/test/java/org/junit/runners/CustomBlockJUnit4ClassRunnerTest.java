@@ -35,6 +35,13 @@ public class CustomBlockJUnit4ClassRunnerTest {
 	}
 
 
+	@Test
+	public void overriddenStatementBuildersAreUsedForPlainTestMethods() throws Exception {
+		InvokerOverridingRunner runner = new InvokerOverridingRunner(CustomBlockJUnit4ClassRunnerTestCase.class);
+		runner.run(new RunNotifier());
+		assertEquals("methods invoked.", 2, runner.invocationCount.get());
+	}
+
 	public static class CustomBlockJUnit4ClassRunnerTestCase {
 		@Test public void shouldPass() { /* no-op */ }
 		@Test public void throwException() { /* no-op */ }
@@ -60,6 +67,31 @@ public class CustomBlockJUnit4ClassRunnerTest {
 		}
 	}
 
+	/**
+	 * Custom extension of {@link BlockJUnit4ClassRunner} that counts the test
+	 * methods that are invoked through its {@code methodInvoker()}.
+	 */
+	private static class InvokerOverridingRunner extends BlockJUnit4ClassRunner {
+
+		final AtomicInteger invocationCount = new AtomicInteger();
+
+		InvokerOverridingRunner(Class<?> testClass) throws InitializationError {
+			super(testClass);
+		}
+
+		@Override
+		protected Statement methodInvoker(FrameworkMethod method, Object test) {
+			final Statement invoker = super.methodInvoker(method, test);
+			return new Statement() {
+				@Override
+				public void evaluate() throws Throwable {
+					invocationCount.incrementAndGet();
+					invoker.evaluate();
+				}
+			};
+		}
+	}
+
 	/**
 	 * Simple {@link RunListener} that tracks the number of times that
 	 * certain callbacks are invoked.
@@ -8,7 +8,8 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({
         DescriptionTest.class,
         JUnit38SortingTest.class,
-        MaxStarterTest.class
+        MaxStarterTest.class,
+        ShardFilterFactoryTest.class
 })
 public class AllMaxTests {
 }
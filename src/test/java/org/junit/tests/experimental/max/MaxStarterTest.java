@@ -8,14 +8,19 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.File;
+import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import junit.framework.TestCase;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.max.MaxCore;
+import org.junit.experimental.max.MaxHistory;
 import org.junit.internal.runners.JUnit38ClassRunner;
 import org.junit.runner.Computer;
 import org.junit.runner.Description;
@@ -156,6 +161,137 @@ public class MaxStarterTest {
                 "slow"), thing);
     }
 
+    @Test
+    public void timeBoxedRunSkipsTestsThatDoNotFitTheBudget() {
+        Request request = Request.aClass(TwoUnEqualTests.class);
+        fMax.run(request);
+        Result result = fMax.run(request, 50, TimeUnit.MILLISECONDS);
+        assertEquals(1, result.getRunCount());
+        assertEquals(1, result.getIgnoreCount());
+        assertEquals("fast", result.getFailures().get(0).getDescription().getMethodName());
+    }
+
+    @Test
+    public void timeBoxedRunWithoutBudgetSkipsAllTests() {
+        Result result = fMax.run(Request.aClass(TwoTests.class), 0, TimeUnit.SECONDS);
+        assertEquals(0, result.getRunCount());
+        assertEquals(2, result.getIgnoreCount());
+    }
+
+    public static class ThreeTests {
+        @Test
+        public void a() {
+        }
+
+        @Test
+        public void b() {
+        }
+
+        @Test
+        public void c() {
+        }
+    }
+
+    public static class SlowerThanRecorded {
+        @Test
+        public void slow() throws InterruptedException {
+            Thread.sleep(200);
+        }
+
+        @Test
+        public void later() {
+        }
+    }
+
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    /**
+     * Stores a history with the given durations, in milliseconds, and failure
+     * timestamps of the tests of {@code testClass}, and returns a
+     * {@link MaxCore} that uses it.
+     */
+    private MaxCore maxWithHistory(Class<?> testClass, String[] methods, long[] durationMillis,
+            Long[] failureTimestamps) throws Exception {
+        MaxHistory history = MaxHistory.forFolder(fMaxFile);
+        Map<String, Long> durations = historyMap(history, "fDurations");
+        Map<String, Long> failures = historyMap(history, "fFailureTimestamps");
+        for (int i = 0; i < methods.length; i++) {
+            String test = Description.createTestDescription(testClass, methods[i]).toString();
+            durations.put(test, TimeUnit.MILLISECONDS.toNanos(durationMillis[i]));
+            if (failureTimestamps[i] != null) {
+                failures.put(test, failureTimestamps[i]);
+            }
+        }
+        history.listener().testRunFinished(new Result());
+        return MaxCore.storedLocally(fMaxFile);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Long> historyMap(MaxHistory history, String name) throws Exception {
+        Field field = MaxHistory.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return (Map<String, Long>) field.get(history);
+    }
+
+    private static class StartedAndIgnoredTests extends RunListener {
+        final List<String> started = new ArrayList<String>();
+
+        final List<String> ignored = new ArrayList<String>();
+
+        @Override
+        public void testStarted(Description description) {
+            started.add(description.getMethodName());
+        }
+
+        @Override
+        public void testIgnored(Description description) {
+            ignored.add(description.getMethodName());
+        }
+    }
+
+    private static StartedAndIgnoredTests runTimeBoxed(MaxCore max, Class<?> testClass,
+            long budgetMillis) {
+        JUnitCore core = new JUnitCore();
+        StartedAndIgnoredTests listener = new StartedAndIgnoredTests();
+        core.addListener(listener);
+        max.run(Request.aClass(testClass), core, budgetMillis, TimeUnit.MILLISECONDS);
+        return listener;
+    }
+
+    @Test
+    public void timeBoxedRunPrefersRecentlyFailedTests() throws Exception {
+        long now = System.currentTimeMillis();
+        MaxCore max = maxWithHistory(ThreeTests.class, new String[] {"a", "b", "c"},
+                new long[] {1, 1, 1}, new Long[] {now - 3 * DAY_MILLIS, now - DAY_MILLIS / 24, null});
+
+        StartedAndIgnoredTests tests = runTimeBoxed(max, ThreeTests.class, 10000);
+
+        assertEquals(Arrays.asList("b", "a", "c"), tests.started);
+        assertEquals(Arrays.<String>asList(), tests.ignored);
+    }
+
+    @Test
+    public void timeBoxedRunPrefersCheapTestsAndSkipsThoseThatDoNotFit() throws Exception {
+        MaxCore max = maxWithHistory(ThreeTests.class, new String[] {"a", "b", "c"},
+                new long[] {100, 1, 10}, new Long[] {null, null, null});
+
+        StartedAndIgnoredTests tests = runTimeBoxed(max, ThreeTests.class, 50);
+
+        assertEquals(Arrays.asList("b", "c"), tests.started);
+        assertEquals(Arrays.asList("a"), tests.ignored);
+    }
+
+    @Test
+    public void timeBoxedRunIgnoresTestsThatWouldStartAfterTheBudget() throws Exception {
+        MaxCore max = maxWithHistory(SlowerThanRecorded.class, new String[] {"slow", "later"},
+                new long[] {1, 2}, new Long[] {null, null});
+
+        StartedAndIgnoredTests tests = runTimeBoxed(max, SlowerThanRecorded.class, 50);
+
+        assertEquals(Arrays.asList("slow"), tests.started);
+        assertEquals(Arrays.asList("later"), tests.ignored);
+    }
+
     @Test
     public void listenersAreCalledCorrectlyInTheFaceOfFailures()
             throws Exception {
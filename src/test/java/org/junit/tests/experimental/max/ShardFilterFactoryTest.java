@@ -0,0 +1,121 @@
+package org.junit.tests.experimental.max;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.max.MaxHistory;
+import org.junit.experimental.max.ShardFilterFactory;
+import org.junit.function.ThrowingRunnable;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+import org.junit.runner.FilterFactory.FilterNotCreatedException;
+import org.junit.runner.FilterFactoryParams;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.manipulation.Filter;
+
+public class ShardFilterFactoryTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    public static class ManyTests {
+        @Test
+        public void a() throws InterruptedException {
+            Thread.sleep(80);
+        }
+
+        @Test
+        public void b() throws InterruptedException {
+            Thread.sleep(50);
+        }
+
+        @Test
+        public void c() throws InterruptedException {
+            Thread.sleep(40);
+        }
+
+        @Test
+        public void d() throws InterruptedException {
+            Thread.sleep(10);
+        }
+
+        @Test
+        public void e() {
+        }
+
+        @Test
+        public void f() {
+        }
+
+        @Test
+        public void g() {
+        }
+    }
+
+    private final Description topLevelDescription =
+            Request.aClass(ManyTests.class).getRunner().getDescription();
+
+    @Test
+    public void assignsEveryTestToExactlyOneShard() throws Exception {
+        List<Description> seen = new ArrayList<Description>();
+        for (int shard = 1; shard <= 3; shard++) {
+            Filter filter = createFilter(shard + "/3");
+            for (Description each : topLevelDescription.getChildren()) {
+                if (filter.shouldRun(each)) {
+                    assertThat(seen.contains(each), is(false));
+                    seen.add(each);
+                }
+            }
+        }
+        assertThat(seen.size(), is(7));
+    }
+
+    @Test
+    public void assignmentIsStable() throws Exception {
+        for (Description each : topLevelDescription.getChildren()) {
+            assertThat(createFilter("2/4").shouldRun(each), is(createFilter("2/4").shouldRun(each)));
+        }
+    }
+
+    @Test
+    public void balancesShardsByRecordedDuration() throws Exception {
+        File historyFile = new File(folder.getRoot(), "history.ser");
+        JUnitCore core = new JUnitCore();
+        core.addListener(MaxHistory.forFolder(historyFile).listener());
+        core.run(ManyTests.class);
+
+        // longest first into the emptiest shard: a (80ms) and d (10ms) in
+        // the first one, b (50ms) and c (40ms) in the second one
+        Filter first = createFilter("1/2,history=" + historyFile.getPath());
+        Filter second = createFilter("2/2,history=" + historyFile.getPath());
+        assertThat(first.shouldRun(test("a")), is(true));
+        assertThat(second.shouldRun(test("b")), is(true));
+        assertThat(second.shouldRun(test("c")), is(true));
+        assertThat(first.shouldRun(test("d")), is(true));
+    }
+
+    @Test
+    public void rejectsShardOutsideOfRange() {
+        assertThrows(FilterNotCreatedException.class, new ThrowingRunnable() {
+            public void run() throws Throwable {
+                createFilter("3/2");
+            }
+        });
+    }
+
+    private Description test(String methodName) {
+        return Description.createTestDescription(ManyTests.class, methodName);
+    }
+
+    private Filter createFilter(String args) throws FilterNotCreatedException {
+        return new ShardFilterFactory().createFilter(
+                new FilterFactoryParams(topLevelDescription, args));
+    }
+}
@@ -7,7 +7,12 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses({
         ParallelClassTest.class,
-        ParallelMethodTest.class
+        ParallelIsolatedClassLoaderTest.class,
+        ParallelLongestFirstTest.class,
+        ParallelMethodTest.class,
+        ParallelResourceLockTest.class,
+        ParallelSharedPoolTest.class,
+        ParallelVirtualThreadTest.class
 })
 public class AllParallelTests {
 }
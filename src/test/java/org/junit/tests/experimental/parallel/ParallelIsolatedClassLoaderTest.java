@@ -0,0 +1,76 @@
+package org.junit.tests.experimental.parallel;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.runner.Computer;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+public class ParallelIsolatedClassLoaderTest {
+    public static class Counter {
+        public static int count = 0;
+    }
+
+    public static class FirstCountingTest {
+        @Test
+        public void countsOnce() {
+            assertEquals(1, ++Counter.count);
+        }
+    }
+
+    public static class SecondCountingTest {
+        @Test
+        public void countsOnce() {
+            assertEquals(1, ++Counter.count);
+        }
+    }
+
+    public static class ClassLoaderTest {
+        @Test
+        public void hasItsOwnClassLoader() {
+            assertThat(ClassLoaderTest.class.getClassLoader(),
+                    not(sameInstance(Test.class.getClassLoader())));
+            assertThat(Thread.currentThread().getContextClassLoader(),
+                    sameInstance(ClassLoaderTest.class.getClassLoader()));
+        }
+
+        @Test
+        public void sharesJUnit() {
+            assertThat(Test.class.getClassLoader(),
+                    sameInstance(ClassLoaderTest.class.getClassLoader().getParent()));
+        }
+    }
+
+    @Before
+    public void resetCounter() {
+        Counter.count = 0;
+    }
+
+    @Test
+    public void staticStateIsSharedWithoutIsolation() {
+        Result result = JUnitCore.runClasses(new Computer(),
+                FirstCountingTest.class, SecondCountingTest.class);
+        assertThat(result.getFailureCount(), equalTo(1));
+    }
+
+    @Test
+    public void eachClassHasItsOwnStaticState() {
+        Computer computer = ParallelComputer.builder()
+                .withParallelClasses(true)
+                .withParallelMethods(true)
+                .withIsolatedClassLoaders()
+                .build();
+        Result result = JUnitCore.runClasses(computer,
+                FirstCountingTest.class, SecondCountingTest.class, ClassLoaderTest.class);
+        assertThat(result.getFailures().toString(), result.wasSuccessful(), equalTo(true));
+        assertThat(result.getRunCount(), equalTo(4));
+        assertThat(Counter.count, equalTo(0));
+    }
+}
@@ -0,0 +1,123 @@
+package org.junit.tests.experimental.parallel;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.experimental.max.MaxHistory;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.OrderWith;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.manipulation.Alphanumeric;
+import org.junit.runner.notification.RunListener;
+
+public class ParallelLongestFirstTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    public static class OneSlowTest {
+        @Test
+        public void slow() throws InterruptedException {
+            Thread.sleep(100);
+        }
+    }
+
+    public static class ThreeFastTests {
+        @Test
+        public void one() {
+        }
+
+        @Test
+        public void two() {
+        }
+
+        @Test
+        public void three() {
+        }
+    }
+
+    @OrderWith(Alphanumeric.class)
+    public static class OrderedTests {
+        @Test
+        public void a() {
+        }
+
+        @Test
+        public void b() throws InterruptedException {
+            Thread.sleep(100);
+        }
+    }
+
+    @Test
+    public void withoutHistoryClassesWithMoreTestsComeFirst() throws Exception {
+        MaxHistory history = MaxHistory.forFolder(new File(folder.getRoot(), "history.ser"));
+
+        assertThat(classOrder(history), equalTo(
+                asList(ThreeFastTests.class.getName(), OneSlowTest.class.getName())));
+    }
+
+    @Test
+    public void longestClassesComeFirst() throws Exception {
+        MaxHistory history = MaxHistory.forFolder(new File(folder.getRoot(), "history.ser"));
+        JUnitCore core = new JUnitCore();
+        core.addListener(history.listener());
+        Result result = core.run(OneSlowTest.class, ThreeFastTests.class);
+        assertThat(result.getRunCount(), equalTo(4));
+
+        assertThat(classOrder(history), equalTo(
+                asList(OneSlowTest.class.getName(), ThreeFastTests.class.getName())));
+    }
+
+    @Test
+    public void methodsKeepTheirOrder() throws Exception {
+        MaxHistory history = MaxHistory.forFolder(new File(folder.getRoot(), "history.ser"));
+        JUnitCore core = new JUnitCore();
+        core.addListener(history.listener());
+        core.run(OrderedTests.class);
+
+        List<String> names = new ArrayList<String>();
+        for (Description each : startedTests(history, OrderedTests.class)) {
+            names.add(each.getMethodName());
+        }
+        assertThat(names, equalTo(asList("a", "b")));
+    }
+
+    private List<String> classOrder(MaxHistory history) {
+        List<String> names = new ArrayList<String>();
+        for (Description each : startedTests(history, OneSlowTest.class, ThreeFastTests.class)) {
+            if (!names.contains(each.getClassName())) {
+                names.add(each.getClassName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Runs the classes one after another, so that the order in which they
+     * are started is the order in which they run.
+     */
+    private List<Description> startedTests(MaxHistory history, Class<?>... classes) {
+        ParallelComputer computer = ParallelComputer.builder().withLongestFirst(history).build();
+        final List<Description> started = Collections.synchronizedList(new ArrayList<Description>());
+        JUnitCore core = new JUnitCore();
+        core.addListener(new RunListener() {
+            @Override
+            public void testStarted(Description description) {
+                started.add(description);
+            }
+        });
+        core.run(Request.classes(computer, classes));
+        return started;
+    }
+}
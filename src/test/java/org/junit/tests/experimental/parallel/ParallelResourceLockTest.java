@@ -0,0 +1,163 @@
+package org.junit.tests.experimental.parallel;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.experimental.ResourceLock;
+import org.junit.experimental.ResourceLock.Mode;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+public class ParallelResourceLockTest {
+    private static final AtomicInteger fRunning = new AtomicInteger();
+
+    private static final AtomicInteger fMaxRunning = new AtomicInteger();
+
+    private static volatile CountDownLatch fLatch;
+
+    private static volatile CyclicBarrier fBarrier;
+
+    private static void useResource() throws InterruptedException {
+        int running = fRunning.incrementAndGet();
+        int max = fMaxRunning.get();
+        while (running > max && !fMaxRunning.compareAndSet(max, running)) {
+            max = fMaxRunning.get();
+        }
+        Thread.sleep(10);
+        fRunning.decrementAndGet();
+    }
+
+    public static class Writers {
+        @Test
+        @ResourceLock("resource")
+        public void one() throws InterruptedException {
+            useResource();
+        }
+
+        @Test
+        @ResourceLock("resource")
+        public void two() throws InterruptedException {
+            useResource();
+        }
+
+        @Test
+        @ResourceLock("resource")
+        public void three() throws InterruptedException {
+            useResource();
+        }
+    }
+
+    public static class MoreWriters {
+        @Test
+        @ResourceLock("resource")
+        public void one() throws InterruptedException {
+            useResource();
+        }
+
+        @Test
+        @ResourceLock("resource")
+        public void two() throws InterruptedException {
+            useResource();
+        }
+    }
+
+    @ResourceLock(value = "resource", mode = Mode.READ)
+    public static class LockedClass {
+        @Test
+        @ResourceLock(value = "resource", mode = Mode.READ)
+        public void one() throws InterruptedException {
+            useResource();
+        }
+
+        @Test
+        @ResourceLock("resource")
+        public void two() throws InterruptedException {
+            useResource();
+        }
+    }
+
+    public static class LockedAndUnlocked {
+        @Test
+        @ResourceLock("resource")
+        public void locked() throws InterruptedException {
+            assertTrue(fLatch.await(10, TimeUnit.SECONDS));
+        }
+
+        @Test
+        public void unlocked() {
+            fLatch.countDown();
+        }
+    }
+
+    public static class Readers {
+        @Test
+        @ResourceLock(value = "resource", mode = Mode.READ)
+        public void one() throws Exception {
+            fBarrier.await(10, TimeUnit.SECONDS);
+        }
+
+        @Test
+        @ResourceLock(value = "resource", mode = Mode.READ)
+        public void two() throws Exception {
+            fBarrier.await(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Before
+    public void init() {
+        fRunning.set(0);
+        fMaxRunning.set(0);
+        fLatch = new CountDownLatch(1);
+        fBarrier = new CyclicBarrier(2);
+    }
+
+    @Test
+    public void testsWithTheSameWriteLockDoNotOverlap() {
+        Result result = JUnitCore.runClasses(new ParallelComputer(true, true, 4),
+                Writers.class, LockedClass.class);
+        assertTrue(result.wasSuccessful());
+        assertThat(result.getRunCount(), is(5));
+        assertThat(fMaxRunning.get(), is(1));
+    }
+
+    @Test
+    public void classesWithLockedMethodsDoNotOverlapWhenOnlyClassesRunInParallel() {
+        ParallelComputer computer = ParallelComputer.builder()
+                .withParallelClasses(true).withParallelism(2).build();
+        Result result = JUnitCore.runClasses(computer, Writers.class, MoreWriters.class);
+        assertTrue(result.wasSuccessful());
+        assertThat(result.getRunCount(), is(5));
+        assertThat(fMaxRunning.get(), is(1));
+    }
+
+    @Test
+    public void lockedClassWithLockedMethodsDoesNotDeadlockOnASingleThread() {
+        Result result = JUnitCore.runClasses(new ParallelComputer(true, true, 1),
+                LockedClass.class, Writers.class);
+        assertTrue(result.wasSuccessful());
+        assertThat(result.getRunCount(), is(5));
+    }
+
+    @Test
+    public void unlockedTestsRunConcurrentlyWithLockedOnes() {
+        Result result = JUnitCore.runClasses(new ParallelComputer(false, true, 2),
+                LockedAndUnlocked.class);
+        assertTrue(result.wasSuccessful());
+    }
+
+    @Test
+    public void readersRunConcurrently() {
+        Result result = JUnitCore.runClasses(new ParallelComputer(false, true, 2),
+                Readers.class);
+        assertTrue(result.wasSuccessful());
+    }
+}
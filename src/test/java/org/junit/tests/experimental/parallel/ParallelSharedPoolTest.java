@@ -0,0 +1,125 @@
+package org.junit.tests.experimental.parallel;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+import org.junit.runner.Runner;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.Suite;
+import org.junit.runners.Suite.SuiteClasses;
+
+public class ParallelSharedPoolTest {
+    private static final Set<Thread> fThreads = Collections.synchronizedSet(new HashSet<Thread>());
+
+    private static void recordThread() throws InterruptedException {
+        fThreads.add(Thread.currentThread());
+        Thread.sleep(5);
+    }
+
+    public static class Example1 {
+        @Test
+        public void one() throws InterruptedException {
+            recordThread();
+        }
+
+        @Test
+        public void two() throws InterruptedException {
+            recordThread();
+        }
+
+        @Test
+        public void three() throws InterruptedException {
+            recordThread();
+        }
+    }
+
+    public static class Example2 {
+        @Test
+        public void one() throws InterruptedException {
+            recordThread();
+        }
+
+        @Test
+        public void two() throws InterruptedException {
+            recordThread();
+        }
+    }
+
+    @RunWith(Suite.class)
+    @SuiteClasses({Example1.class, Example2.class})
+    public static class NestedSuite {
+    }
+
+    @RunWith(Suite.class)
+    @SuiteClasses({NestedSuite.class, Example1.class})
+    public static class OuterSuite {
+    }
+
+    public static class EscapingRunner extends Runner {
+        private final Class<?> testClass;
+
+        public EscapingRunner(Class<?> testClass) {
+            this.testClass = testClass;
+        }
+
+        @Override
+        public Description getDescription() {
+            return Description.createSuiteDescription(testClass);
+        }
+
+        @Override
+        public void run(RunNotifier notifier) {
+            throw new IllegalStateException("escaped from the runner");
+        }
+    }
+
+    @RunWith(EscapingRunner.class)
+    public static class Escaping {
+    }
+
+    @Before
+    public void init() {
+        fThreads.clear();
+    }
+
+    @Test
+    public void nestedSuitesDoNotDeadlockOnASingleThread() {
+        Result result = JUnitCore.runClasses(new ParallelComputer(true, true, 1),
+                OuterSuite.class, NestedSuite.class, Example2.class);
+        assertTrue(result.wasSuccessful());
+        assertThat(result.getRunCount(), is(15));
+    }
+
+    @Test
+    public void throwableEscapingChildFailsParent() {
+        for (int threads = 1; threads <= 2; threads++) {
+            Result result = JUnitCore.runClasses(new ParallelComputer(true, false, threads),
+                    Escaping.class, Example2.class);
+            assertThat(result.getRunCount(), is(2));
+            assertThat(result.getFailureCount(), is(1));
+            assertEquals("escaped from the runner", result.getFailures().get(0).getMessage());
+        }
+    }
+
+    @Test
+    public void allLevelsShareOneBoundedPool() {
+        Result result = JUnitCore.runClasses(new ParallelComputer(true, true, 2),
+                Example1.class, Example2.class, NestedSuite.class);
+        assertTrue(result.wasSuccessful());
+        // at most two pool threads plus the thread that started the run
+        assertTrue(fThreads.size() <= 3);
+    }
+}
@@ -0,0 +1,89 @@
+package org.junit.tests.experimental.parallel;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+public class ParallelVirtualThreadTest {
+    private static final AtomicInteger fRunning = new AtomicInteger();
+    private static final AtomicInteger fMaxRunning = new AtomicInteger();
+
+    private static void blockOnIo() throws InterruptedException {
+        int running = fRunning.incrementAndGet();
+        int max;
+        do {
+            max = fMaxRunning.get();
+        } while (running > max && !fMaxRunning.compareAndSet(max, running));
+        try {
+            Thread.sleep(20);
+        } finally {
+            fRunning.decrementAndGet();
+        }
+    }
+
+    public static class Example {
+        @Test
+        public void one() throws InterruptedException {
+            blockOnIo();
+        }
+
+        @Test
+        public void two() throws InterruptedException {
+            blockOnIo();
+        }
+
+        @Test
+        public void three() throws InterruptedException {
+            blockOnIo();
+        }
+
+        @Test
+        public void four() throws InterruptedException {
+            blockOnIo();
+        }
+
+        @Test
+        public void five() throws InterruptedException {
+            blockOnIo();
+        }
+
+        @Test
+        public void six() throws InterruptedException {
+            blockOnIo();
+        }
+    }
+
+    @Before
+    public void init() {
+        fRunning.set(0);
+        fMaxRunning.set(0);
+    }
+
+    @Test
+    public void runsAllTests() {
+        Result result = JUnitCore.runClasses(
+                ParallelComputer.builder().withParallelMethods(true).withVirtualThreads(2).build(),
+                Example.class, Example.class);
+        assertTrue(result.wasSuccessful());
+        assertThat(result.getRunCount(), is(12));
+    }
+
+    @Test
+    public void limitsConcurrentTests() {
+        Result result = JUnitCore.runClasses(
+                ParallelComputer.builder().withParallelClasses(true).withParallelMethods(true)
+                        .withVirtualThreads(2).build(),
+                Example.class, Example.class, Example.class);
+        assertTrue(result.wasSuccessful());
+        assertThat(result.getRunCount(), is(18));
+        assertTrue(fMaxRunning.get() <= 2);
+    }
+}
@@ -11,14 +11,17 @@ import org.junit.tests.running.classes.parent.ParentRunnerClassLoaderTest;
         ClassLevelMethodsWithIgnoredTestsTest.class,
         EnclosedTest.class,
         IgnoreClassTest.class,
+        LazyChildRunnersTest.class,
         ParameterizedTestTest.class,
         ParentRunnerFilteringTest.class,
         ParentRunnerTest.class,
+        ReleaseFinishedChildrenTest.class,
         ParentRunnerClassLoaderTest.class,
         RunWithTest.class,
         SuiteTest.class,
         UseSuiteAsASuperclassTest.class,
-        ThreadsTest.class
+        ThreadsTest.class,
+        TimeBudgetTest.class
 })
 public class AllClassesTests {
 }
@@ -0,0 +1,221 @@
+package org.junit.tests.running.classes;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.runner.Description.createTestDescription;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Categories.CategoryFilter;
+import org.junit.experimental.categories.Category;
+import org.junit.internal.builders.AllDefaultPossibilitiesBuilder;
+import org.junit.internal.runners.LazyRunner;
+import org.junit.runner.Computer;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Suite;
+import org.junit.runners.Suite.SuiteClasses;
+
+public class LazyChildRunnersTest {
+    public interface FastTests {
+    }
+
+    public static class First {
+        @Test
+        public void first() {
+        }
+    }
+
+    public static class Second {
+        @Test
+        public void second() {
+        }
+    }
+
+    @Category(FastTests.class)
+    public static class FastClass {
+        @Test
+        public void fast() {
+        }
+    }
+
+    public static class FastMethod {
+        @Test
+        @Category(FastTests.class)
+        public void fast() {
+        }
+
+        @Test
+        public void slow() {
+        }
+    }
+
+    @RunWith(Suite.class)
+    @SuiteClasses({First.class, Second.class})
+    public static class NestedSuite {
+    }
+
+    @RunWith(Parameterized.class)
+    public static class ParameterizedClass {
+        @Parameterized.Parameters
+        public static List<Object[]> parameters() {
+            return Collections.singletonList(new Object[0]);
+        }
+
+        @Test
+        public void test() {
+        }
+    }
+
+    private static class RecordingBuilder extends AllDefaultPossibilitiesBuilder {
+        final List<Class<?>> builtClasses = Collections.synchronizedList(new ArrayList<Class<?>>());
+
+        final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+
+        private final boolean lazily;
+
+        RecordingBuilder() {
+            this(false);
+        }
+
+        RecordingBuilder(boolean lazily) {
+            this.lazily = lazily;
+        }
+
+        @Override
+        protected boolean buildsRunnersLazily() {
+            return lazily;
+        }
+
+        @Override
+        public Runner runnerForClass(Class<?> testClass) throws Throwable {
+            builtClasses.add(testClass);
+            threads.add(Thread.currentThread());
+            return super.runnerForClass(testClass);
+        }
+    }
+
+    private static Computer lazyComputer() {
+        Computer computer = new Computer();
+        computer.setLazyRunnerConstruction(true);
+        return computer;
+    }
+
+    @Test
+    public void runnersAreBuiltWithSuiteByDefault() throws Exception {
+        RecordingBuilder builder = new RecordingBuilder();
+        new Computer().getSuite(builder, new Class<?>[] {First.class, Second.class});
+        assertEquals(asList(First.class, Second.class), builder.builtClasses);
+
+        builder.builtClasses.clear();
+        new Suite(builder, new Class<?>[] {First.class, Second.class});
+        assertEquals(asList(First.class, Second.class), builder.builtClasses);
+    }
+
+    @Test
+    public void runnersAreBuiltWhenFirstNeeded() throws Exception {
+        RecordingBuilder builder = new RecordingBuilder();
+        Runner suite = lazyComputer().getSuite(builder, new Class<?>[] {First.class, Second.class});
+        assertEquals(Collections.emptyList(), builder.builtClasses);
+
+        assertEquals(2, suite.testCount());
+        assertEquals(asList(First.class, Second.class), builder.builtClasses);
+    }
+
+    @Test
+    public void classesRejectedByMethodFilterAreNotBuilt() throws Exception {
+        RecordingBuilder builder = new RecordingBuilder();
+        Runner suite = lazyComputer().getSuite(builder, new Class<?>[] {First.class, Second.class});
+        Filter.matchMethodDescription(createTestDescription(Second.class, "second")).apply(suite);
+
+        Result result = new JUnitCore().run(suite);
+        assertEquals(1, result.getRunCount());
+        assertEquals(asList(Second.class), builder.builtClasses);
+    }
+
+    @Test
+    public void filterAfterDescriptionRemovesRejectedClasses() throws Exception {
+        RecordingBuilder builder = new RecordingBuilder();
+        Runner suite = lazyComputer().getSuite(builder, new Class<?>[] {First.class, Second.class});
+        assertEquals(2, suite.getDescription().getChildren().size());
+        Filter.matchMethodDescription(createTestDescription(Second.class, "second")).apply(suite);
+
+        assertEquals(1, suite.getDescription().getChildren().size());
+        Result result = new JUnitCore().run(suite);
+        assertEquals(1, result.getRunCount());
+    }
+
+    @Test
+    public void secondFilterRemovesClassesWithoutBuildingThem() throws Exception {
+        RecordingBuilder builder = new RecordingBuilder();
+        Runner suite = lazyComputer().getSuite(builder,
+                new Class<?>[] {First.class, FastClass.class, FastMethod.class, Second.class});
+        CategoryFilter.include(FastTests.class).apply(suite);
+        Filter.matchMethodDescription(createTestDescription(FastClass.class, "fast")).apply(suite);
+
+        Result result = new JUnitCore().run(suite);
+        assertEquals(1, result.getRunCount());
+        assertEquals(asList(FastClass.class, FastMethod.class), builder.builtClasses);
+    }
+
+    @Test
+    public void classesRejectedByCategoryFilterAreNotBuilt() throws Exception {
+        RecordingBuilder builder = new RecordingBuilder();
+        Runner suite = lazyComputer().getSuite(builder,
+                new Class<?>[] {First.class, FastClass.class, FastMethod.class, Second.class});
+        CategoryFilter.include(FastTests.class).apply(suite);
+
+        Result result = new JUnitCore().run(suite);
+        assertEquals(2, result.getRunCount());
+        assertEquals(asList(FastClass.class, FastMethod.class), builder.builtClasses);
+    }
+
+    @Test
+    public void runnersCanBeBuiltInParallel() throws Exception {
+        Class<?>[] classes = {First.class, FastClass.class, FastMethod.class, Second.class};
+        RecordingBuilder builder = new RecordingBuilder();
+        Computer computer = new Computer();
+        computer.setParallelRunnerConstruction(true);
+        Runner suite = computer.getSuite(builder, classes);
+
+        List<Description> children = suite.getDescription().getChildren();
+        assertEquals(classes.length, children.size());
+        for (int i = 0; i < classes.length; i++) {
+            assertEquals(classes[i], children.get(i).getTestClass());
+        }
+        assertEquals(classes.length, builder.builtClasses.size());
+    }
+
+    @Test
+    public void lazyRunnersAreBuiltOnOtherThreads() throws Exception {
+        RecordingBuilder builder = new RecordingBuilder(true);
+        List<Runner> runners = builder.runners(null, new Class<?>[] {First.class, Second.class});
+        LazyRunner.buildInParallel(runners, 2);
+
+        assertEquals(2, builder.builtClasses.size());
+        assertEquals(2, builder.threads.size());
+        assertFalse(builder.threads.contains(Thread.currentThread()));
+        assertEquals(First.class, runners.get(0).getDescription().getTestClass());
+        assertEquals(Second.class, runners.get(1).getDescription().getTestClass());
+    }
+
+    @Test
+    public void suitesAreBuiltImmediately() {
+        RecordingBuilder builder = new RecordingBuilder();
+        assertFalse(builder.canBuildLazily(NestedSuite.class));
+        assertTrue(builder.canBuildLazily(First.class));
+        assertTrue(builder.canBuildLazily(ParameterizedClass.class));
+    }
+}
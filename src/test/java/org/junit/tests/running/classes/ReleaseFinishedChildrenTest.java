@@ -0,0 +1,96 @@
+package org.junit.tests.running.classes;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+import org.junit.runner.Runner;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.ParentRunner;
+
+public class ReleaseFinishedChildrenTest {
+    public static class Fixture {
+        final byte[] data = new byte[1024 * 1024];
+    }
+
+    private static volatile WeakReference<Fixture> fixture;
+
+    private static volatile boolean fixtureReleased;
+
+    @RunWith(Parameterized.class)
+    public static class WithLargeFixture {
+        @Parameters
+        public static Collection<Object[]> parameters() {
+            Fixture parameter = new Fixture();
+            fixture = new WeakReference<Fixture>(parameter);
+            return asList(new Object[][] {{parameter}});
+        }
+
+        private final Fixture parameter;
+
+        public WithLargeFixture(Fixture parameter) {
+            this.parameter = parameter;
+        }
+
+        @Test
+        public void usesFixture() {
+            assertNotNull(parameter.data);
+        }
+    }
+
+    public static class RunsAfterwards {
+        @Test
+        public void checksWhetherFixtureWasReleased() throws InterruptedException {
+            for (int i = 0; i < 20 && fixture.get() != null; i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+            fixtureReleased = fixture.get() == null;
+        }
+    }
+
+    private Runner suite() {
+        return Request.classes(WithLargeFixture.class, RunsAfterwards.class).getRunner();
+    }
+
+    @Test
+    public void keepsFinishedChildrenByDefault() {
+        Runner suite = suite();
+        Result result = new JUnitCore().run(suite);
+        assertTrue(result.wasSuccessful());
+        assertFalse(fixtureReleased);
+        assertEquals(2, suite.testCount());
+    }
+
+    @Test
+    public void releasesFinishedChildrenInLowMemoryMode() {
+        JUnitCore core = new JUnitCore();
+        core.setLowMemory(true);
+        Runner suite = suite();
+        Result result = core.run(suite);
+        assertTrue(result.wasSuccessful());
+        assertTrue(fixtureReleased);
+        assertEquals(2, result.getRunCount());
+        assertEquals(2, suite.getDescription().testCount());
+    }
+
+    @Test
+    public void releasedRunnerIsNotRunAgain() {
+        ParentRunner<?> suite = (ParentRunner<?>) suite();
+        suite.setReleaseFinishedChildren(true);
+        new JUnitCore().run(suite);
+        Result result = new JUnitCore().run(suite);
+        assertEquals(0, result.getRunCount());
+    }
+}
@@ -0,0 +1,201 @@
+package org.junit.tests.running.classes;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.TimeBudget;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runners.MethodSorters;
+import org.junit.runners.Suite;
+import org.junit.runners.Suite.SuiteClasses;
+import org.junit.runners.model.TestTimedOutException;
+import org.junit.runners.model.TimeBudgetExceededException;
+
+public class TimeBudgetTest {
+    private static volatile boolean afterClassRun;
+
+    @TimeBudget(value = 500, unit = TimeUnit.MILLISECONDS)
+    @FixMethodOrder(MethodSorters.NAME_ASCENDING)
+    public static class ExceedsBudget {
+        @Test
+        public void a() throws InterruptedException {
+            Thread.sleep(10000);
+        }
+
+        @Test
+        public void b() {
+        }
+
+        @Test
+        public void c() {
+        }
+    }
+
+    @TimeBudget(value = 500, unit = TimeUnit.MILLISECONDS)
+    public static class TestTimeoutExceedsBudget {
+        @Test(timeout = 10000)
+        public void sleeps() throws InterruptedException {
+            Thread.sleep(10000);
+        }
+    }
+
+    @TimeBudget(10)
+    public static class WithinBudget {
+        @Test
+        public void fast() {
+        }
+
+        @AfterClass
+        public static void after() {
+            afterClassRun = true;
+        }
+    }
+
+    @FixMethodOrder(MethodSorters.NAME_ASCENDING)
+    public static class WithoutBudget {
+        @Test
+        public void a() throws InterruptedException {
+            Thread.sleep(10000);
+        }
+
+        @Test
+        public void b() {
+        }
+    }
+
+    @RunWith(Suite.class)
+    @SuiteClasses({WithinBudget.class, WithoutBudget.class})
+    @TimeBudget(value = 500, unit = TimeUnit.MILLISECONDS)
+    public static class SuiteWithBudget {
+    }
+
+    @TimeBudget(value = 200, unit = TimeUnit.MILLISECONDS)
+    public static class OneTest {
+        @Test
+        public void test() {
+        }
+    }
+
+    @RunListener.ThreadSafe
+    private static class ListenerBlockedUntilCutOff extends RunListener {
+        final CountDownLatch cutOff = new CountDownLatch(1);
+
+        final CountDownLatch unblocked = new CountDownLatch(1);
+
+        volatile boolean cutOffWhileBlocked = false;
+
+        @Override
+        public void testStarted(Description description) {
+            // the test thread is interrupted when the budget is exceeded
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    cutOffWhileBlocked = cutOff.await(5, TimeUnit.SECONDS);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            unblocked.countDown();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void testFailure(Failure failure) {
+            if (failure.getDescription().isTest()) {
+                cutOff.countDown();
+            }
+        }
+    }
+
+    @Before
+    public void init() {
+        afterClassRun = false;
+    }
+
+    @Test(timeout = 5000)
+    public void cutsOffClassThatExceedsItsBudget() {
+        Result result = JUnitCore.runClasses(ExceedsBudget.class);
+
+        assertThat(result.getRunCount(), is(1));
+        assertThat(result.getNotStartedCount(), is(2));
+        assertThat(result.getFailureCount(), is(2));
+        assertEquals("a", result.getFailures().get(0).getDescription().getMethodName());
+        assertThat(result.getFailures().get(0).getException(),
+                instanceOf(TestTimedOutException.class));
+        TimeBudgetExceededException exception =
+                (TimeBudgetExceededException) result.getFailures().get(1).getException();
+        assertThat(exception.getUnrunTests().size(), is(2));
+        assertEquals("time budget of 500 milliseconds exceeded; 2 tests did not run: "
+                + "b(org.junit.tests.running.classes.TimeBudgetTest$ExceedsBudget), "
+                + "c(org.junit.tests.running.classes.TimeBudgetTest$ExceedsBudget)",
+                exception.getMessage());
+    }
+
+    @Test(timeout = 5000)
+    public void timeoutOfTestIsLimitedToRemainingBudget() {
+        Result result = JUnitCore.runClasses(TestTimeoutExceedsBudget.class);
+
+        assertThat(result.getRunCount(), is(1));
+        assertFalse(result.wasSuccessful());
+        for (Failure each : result.getFailures()) {
+            if (each.getDescription().isTest()) {
+                TestTimedOutException exception = (TestTimedOutException) each.getException();
+                assertThat(exception.getTimeUnit(), is(TimeUnit.MILLISECONDS));
+                assertTrue(exception.getTimeout() <= 500);
+            }
+        }
+    }
+
+    @Test
+    public void runsClassWithinBudgetAsUsual() {
+        Result result = JUnitCore.runClasses(WithinBudget.class);
+
+        assertTrue(result.wasSuccessful());
+        assertThat(result.getRunCount(), is(1));
+        assertTrue(afterClassRun);
+    }
+
+    @Test(timeout = 10000)
+    public void cutOffDoesNotWaitForListeners() throws InterruptedException {
+        ListenerBlockedUntilCutOff listener = new ListenerBlockedUntilCutOff();
+        JUnitCore core = new JUnitCore();
+        core.addListener(listener);
+        Result result = core.run(OneTest.class);
+
+        assertTrue(listener.unblocked.await(5, TimeUnit.SECONDS));
+        assertTrue(listener.cutOffWhileBlocked);
+        assertFalse(result.wasSuccessful());
+    }
+
+    @Test(timeout = 5000)
+    public void budgetOfSuiteLimitsBudgetOfItsClasses() {
+        Result result = JUnitCore.runClasses(SuiteWithBudget.class);
+
+        assertThat(result.getRunCount(), is(2));
+        assertThat(result.getNotStartedCount(), is(1));
+        assertThat(result.getFailureCount(), is(2));
+        Failure lastFailure = result.getFailures().get(1);
+        assertEquals(Description.createSuiteDescription(SuiteWithBudget.class),
+                lastFailure.getDescription());
+        assertThat(lastFailure.getException(), instanceOf(TimeBudgetExceededException.class));
+    }
+}
@@ -7,9 +7,12 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses({
         AnnotationTest.class,
+        AsyncTestMethodTest.class,
+        ConcurrentTest.class,
         ExpectedTest.class,
         InheritedTestTest.class,
         ParameterizedTestMethodTest.class,
+        TestInstanceTest.class,
         TestMethodTest.class,
         TimeoutTest.class
 })
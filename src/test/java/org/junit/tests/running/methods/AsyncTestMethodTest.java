@@ -0,0 +1,318 @@
+package org.junit.tests.running.methods;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNoException;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.function.ThrowingRunnable;
+import org.junit.internal.runners.statements.InvokeAsyncMethod;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.TestTimedOutException;
+
+public class AsyncTestMethodTest {
+    private static <T> Future<T> completeLater(final Callable<T> callable) {
+        FutureTask<T> future = new FutureTask<T>(callable);
+        Thread thread = new Thread(future, "AsyncTestMethodTest");
+        thread.setDaemon(true);
+        thread.start();
+        return future;
+    }
+
+    public static class Successful {
+        @Test
+        public Future<String> completes() {
+            return completeLater(new Callable<String>() {
+                public String call() throws Exception {
+                    Thread.sleep(10);
+                    return "done";
+                }
+            });
+        }
+    }
+
+    @Test
+    public void passesWhenFutureCompletes() {
+        Result result = JUnitCore.runClasses(Successful.class);
+        assertTrue(result.wasSuccessful());
+        assertEquals(1, result.getRunCount());
+    }
+
+    public static class Failing {
+        @Test
+        public Future<Void> failsLater() {
+            return completeLater(new Callable<Void>() {
+                public Void call() throws Exception {
+                    throw new IllegalStateException("failed later");
+                }
+            });
+        }
+    }
+
+    @Test
+    public void failsWithTheExceptionOfTheFuture() {
+        Result result = JUnitCore.runClasses(Failing.class);
+        assertEquals(1, result.getFailureCount());
+        assertThat(result.getFailures().get(0).getException(),
+                instanceOf(IllegalStateException.class));
+    }
+
+    public static class ExpectingException {
+        @Test(expected = IllegalStateException.class)
+        public Future<Void> failsLater() {
+            return new Failing().failsLater();
+        }
+    }
+
+    @Test
+    public void expectedExceptionsMayComeFromTheFuture() {
+        Result result = JUnitCore.runClasses(ExpectingException.class);
+        assertTrue(result.wasSuccessful());
+    }
+
+    public static class TooSlow {
+        static volatile Future<Void> future;
+
+        @Test(timeout = 100)
+        public Future<Void> neverCompletes() {
+            future = completeLater(new Callable<Void>() {
+                public Void call() throws Exception {
+                    Thread.sleep(10000);
+                    return null;
+                }
+            });
+            return future;
+        }
+    }
+
+    @Test
+    public void timeoutLimitsTheWait() {
+        Result result = JUnitCore.runClasses(TooSlow.class);
+        assertEquals(1, result.getFailureCount());
+        assertThat(result.getFailures().get(0).getException(),
+                instanceOf(TestTimedOutException.class));
+        assertTrue(TooSlow.future.isCancelled());
+    }
+
+    public static class NotAFuture {
+        @Test
+        public String returnsString() {
+            return "";
+        }
+    }
+
+    @Test
+    public void otherReturnTypesAreRejected() {
+        Result result = JUnitCore.runClasses(NotAFuture.class);
+        assertEquals(1, result.getFailureCount());
+        assertThat(result.getFailures().get(0).getMessage(),
+                containsString("should be void"));
+    }
+
+    public static class WaitingForEachOther {
+        static CountDownLatch invoked;
+
+        private Future<Void> waitForAll() {
+            invoked.countDown();
+            return completeLater(new Callable<Void>() {
+                public Void call() throws Exception {
+                    invoked.await();
+                    return null;
+                }
+            });
+        }
+
+        @Test(timeout = 10000)
+        public Future<Void> one() {
+            return waitForAll();
+        }
+
+        @Test(timeout = 10000)
+        public Future<Void> two() {
+            return waitForAll();
+        }
+
+        @Test(timeout = 10000)
+        public Future<Void> three() {
+            return waitForAll();
+        }
+    }
+
+    @Test
+    public void waitingTestsDoNotOccupyPoolThreads() {
+        WaitingForEachOther.invoked = new CountDownLatch(3);
+        Result result = new JUnitCore().run(Request.classes(
+                new ParallelComputer(false, true, 1), WaitingForEachOther.class));
+        assertEquals(result.getFailures().toString(), 0, result.getFailureCount());
+        assertEquals(3, result.getRunCount());
+        assertEquals(0, WaitingForEachOther.invoked.getCount());
+    }
+
+    public static class ManyPending {
+        static final AtomicInteger pending = new AtomicInteger();
+
+        static final AtomicInteger maxPending = new AtomicInteger();
+
+        private Future<Void> pending() {
+            int count = pending.incrementAndGet();
+            while (maxPending.get() < count) {
+                maxPending.compareAndSet(maxPending.get(), count);
+            }
+            return completeLater(new Callable<Void>() {
+                public Void call() throws Exception {
+                    Thread.sleep(200);
+                    pending.decrementAndGet();
+                    return null;
+                }
+            });
+        }
+
+        @Test
+        public Future<Void> a() {
+            return pending();
+        }
+
+        @Test
+        public Future<Void> b() {
+            return pending();
+        }
+
+        @Test
+        public Future<Void> c() {
+            return pending();
+        }
+
+        @Test
+        public Future<Void> d() {
+            return pending();
+        }
+
+        @Test
+        public Future<Void> e() {
+            return pending();
+        }
+
+        @Test
+        public Future<Void> f() {
+            return pending();
+        }
+
+        @Test
+        public Future<Void> g() {
+            return pending();
+        }
+
+        @Test
+        public Future<Void> h() {
+            return pending();
+        }
+
+        @Test
+        public Future<Void> i() {
+            return pending();
+        }
+
+        @Test
+        public Future<Void> j() {
+            return pending();
+        }
+    }
+
+    @Test
+    public void poolMakesUpForALimitedNumberOfWaitingTests() {
+        ManyPending.maxPending.set(0);
+        Result result = new JUnitCore().run(Request.classes(
+                new ParallelComputer(false, true, 1), ManyPending.class));
+        assertEquals(result.getFailures().toString(), 0, result.getFailureCount());
+        assertEquals(10, result.getRunCount());
+        // one pool thread, four threads for waiting tests, and the thread
+        // that started the run
+        assertTrue(ManyPending.maxPending.toString(), ManyPending.maxPending.get() <= 6);
+    }
+
+    /**
+     * Returns a {@code CompletionStage} that only supports the methods of
+     * {@code CompletionStage} and is completed by another thread with the
+     * given result, using reflection because the tests compile against Java 5.
+     * Nothing completes the stage if {@code result} is {@code null}.
+     */
+    private static Object minimalCompletionStage(final Object result) throws Exception {
+        Class<?> type = Class.forName("java.util.concurrent.CompletableFuture");
+        final Object future = type.getConstructor().newInstance();
+        Object stage;
+        try {
+            stage = type.getMethod("minimalCompletionStage").invoke(future);
+        } catch (NoSuchMethodException e) {
+            assumeNoException("minimal stages need Java 9", e);
+            throw e;
+        }
+        final Method complete = result instanceof Throwable
+                ? type.getMethod("completeExceptionally", Throwable.class)
+                : type.getMethod("complete", Object.class);
+        if (result != null) {
+            completeLater(new Callable<Object>() {
+                public Object call() throws Exception {
+                    Thread.sleep(10);
+                    return complete.invoke(future, result);
+                }
+            });
+        }
+        return stage;
+    }
+
+    public static class ReturningStage {
+        private final Object stage;
+
+        public ReturningStage(Object stage) {
+            this.stage = stage;
+        }
+
+        public Object stage() {
+            return stage;
+        }
+    }
+
+    private static ThrowingRunnable awaitStage(final Object stage, final long timeoutMillis) {
+        return new ThrowingRunnable() {
+            public void run() throws Throwable {
+                new InvokeAsyncMethod(new FrameworkMethod(ReturningStage.class.getMethod("stage")),
+                        new ReturningStage(stage), timeoutMillis, TimeUnit.MILLISECONDS).evaluate();
+            }
+        };
+    }
+
+    @Test
+    public void passesWhenCompletionStageCompletes() throws Throwable {
+        awaitStage(minimalCompletionStage("done"), 0).run();
+    }
+
+    @Test
+    public void failsWithTheCauseOfACompletionException() throws Exception {
+        Throwable failure = (Throwable) Class.forName("java.util.concurrent.CompletionException")
+                .getConstructor(Throwable.class)
+                .newInstance(new IllegalStateException("failed later"));
+
+        assertThrows(IllegalStateException.class, awaitStage(minimalCompletionStage(failure), 0));
+    }
+
+    @Test
+    public void timeoutLimitsTheWaitForCompletionStage() throws Exception {
+        assertThrows(TestTimedOutException.class, awaitStage(minimalCompletionStage(null), 50));
+    }
+}
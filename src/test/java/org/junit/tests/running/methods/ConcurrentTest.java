@@ -0,0 +1,204 @@
+package org.junit.tests.running.methods;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Concurrent;
+import org.junit.Test;
+import org.junit.internal.runners.statements.RunConcurrently;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runners.model.Statement;
+
+public class ConcurrentTest {
+    @Before
+    public void resetCounters() {
+        Counting.instances.clear();
+        Counting.invocations.set(0);
+        Failing.invocations.set(0);
+    }
+
+    public static class Counting {
+        static final Map<Object, Boolean> instances =
+                Collections.synchronizedMap(new IdentityHashMap<Object, Boolean>());
+
+        static final AtomicInteger invocations = new AtomicInteger();
+
+        @Test
+        @Concurrent(threads = 4, repetitions = 25)
+        public void count() {
+            instances.put(this, true);
+            invocations.incrementAndGet();
+        }
+    }
+
+    @Test
+    public void invokesMethodOnEachThreadForEachRepetitionWithSharedInstance() {
+        Result result = JUnitCore.runClasses(Counting.class);
+        assertTrue(result.wasSuccessful());
+        assertEquals(1, result.getRunCount());
+        assertEquals(100, Counting.invocations.get());
+        assertEquals(1, Counting.instances.size());
+    }
+
+    public static class MeetingAtTheBarrier {
+        static final CountDownLatch arrived = new CountDownLatch(4);
+
+        @Test
+        @Concurrent(threads = 4)
+        public void allThreadsRunAtOnce() throws InterruptedException {
+            arrived.countDown();
+            assertTrue(arrived.await(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void releasesThreadsTogether() {
+        Result result = JUnitCore.runClasses(MeetingAtTheBarrier.class);
+        assertTrue(result.wasSuccessful());
+    }
+
+    public static class Failing {
+        static final AtomicInteger invocations = new AtomicInteger();
+
+        @Test
+        @Concurrent(threads = 3, repetitions = 10)
+        public void fail() {
+            invocations.incrementAndGet();
+            throw new IllegalStateException("failed concurrently");
+        }
+    }
+
+    @Test
+    public void collectsFailuresOfAllThreadsAndStopsRepeating() {
+        Result result = JUnitCore.runClasses(Failing.class);
+        assertEquals(3, result.getFailureCount());
+        assertThat(result.getFailures().get(0).getException(),
+                instanceOf(IllegalStateException.class));
+        assertEquals(3, Failing.invocations.get());
+    }
+
+    public static class ViolatingAssumption {
+        @Test
+        @Concurrent(threads = 3)
+        public void skipped() {
+            assumeTrue(false);
+        }
+    }
+
+    @Test
+    public void skipsTestIfAllThreadsViolateAssumptions() {
+        Result result = JUnitCore.runClasses(ViolatingAssumption.class);
+        assertTrue(result.wasSuccessful());
+        assertEquals(1, result.getAssumptionFailureCount());
+    }
+
+    @Test(timeout = 10000)
+    public void waitsForThreadsWhenInterrupted() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(2);
+        final AtomicInteger finished = new AtomicInteger();
+        final Statement statement = new RunConcurrently(new Statement() {
+            @Override
+            public void evaluate() throws InterruptedException {
+                started.countDown();
+                try {
+                    Thread.sleep(10000);
+                } finally {
+                    Thread.sleep(100);
+                    finished.incrementAndGet();
+                }
+            }
+        }, "sleep", 2, 1, null);
+        final AtomicInteger finishedOnReturn = new AtomicInteger(-1);
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    statement.evaluate();
+                } catch (Throwable e) {
+                    finishedOnReturn.set(finished.get());
+                }
+            }
+        };
+        thread.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        thread.interrupt();
+        thread.join();
+        assertEquals(2, finishedOnReturn.get());
+    }
+
+    public static class WithoutThreads {
+        @Test
+        @Concurrent(threads = 0)
+        public void neverRuns() {
+        }
+    }
+
+    @Test
+    public void rejectsNonPositiveThreads() {
+        Result result = JUnitCore.runClasses(WithoutThreads.class);
+        assertEquals(1, result.getFailureCount());
+        assertThat(result.getFailures().get(0).getMessage(),
+                containsString("should have positive @Concurrent threads and repetitions"));
+    }
+
+    public static class ExpectingException {
+        @Test(expected = IllegalStateException.class)
+        @Concurrent(threads = 2)
+        public void neverRuns() {
+        }
+    }
+
+    @Test
+    public void rejectsExpectedException() {
+        Result result = JUnitCore.runClasses(ExpectingException.class);
+        assertEquals(1, result.getFailureCount());
+        assertThat(result.getFailures().get(0).getMessage(),
+                containsString("should not expect an exception with @Concurrent"));
+    }
+
+    public static class Reporting {
+        @Test
+        @Concurrent(threads = 4, repetitions = 25, reportThroughput = true)
+        public void count() {
+        }
+    }
+
+    @Test
+    public void reportsThroughputIfRequested() {
+        String output = runWithSystemOut(Reporting.class);
+        assertThat(output, containsString("count: 100 invocations on 4 threads"));
+        assertThat(output, containsString("invocations/s"));
+    }
+
+    @Test
+    public void reportsNothingByDefault() {
+        assertEquals("", runWithSystemOut(Counting.class));
+    }
+
+    private static String runWithSystemOut(Class<?> testClass) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(output));
+        try {
+            JUnitCore.runClasses(testClass);
+        } finally {
+            System.setOut(originalOut);
+        }
+        return output.toString();
+    }
+}
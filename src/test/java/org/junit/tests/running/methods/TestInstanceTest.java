@@ -0,0 +1,110 @@
+package org.junit.tests.running.methods;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.FixMethodOrder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.TestInstance;
+import org.junit.TestInstance.Lifecycle;
+import org.junit.rules.TestRule;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runners.MethodSorters;
+
+public class TestInstanceTest {
+    private static int constructions;
+
+    private static int befores;
+
+    private static int ruleApplications;
+
+    @Before
+    public void resetCounters() {
+        constructions = 0;
+        befores = 0;
+        ruleApplications = 0;
+    }
+
+    public static class PerMethod {
+        @Rule
+        public final TestRule rule = new TestWatcher() {
+            @Override
+            protected void starting(Description description) {
+                ruleApplications++;
+            }
+        };
+
+        public PerMethod() {
+            constructions++;
+        }
+
+        @Before
+        public void before() {
+            befores++;
+        }
+
+        @Test
+        public void one() {
+        }
+
+        @Test
+        public void two() {
+        }
+
+        @Test
+        public void three() {
+        }
+    }
+
+    @TestInstance(Lifecycle.PER_CLASS)
+    public static class PerClass extends PerMethod {
+    }
+
+    @Test
+    public void createsOneInstancePerMethodByDefault() {
+        Result result = JUnitCore.runClasses(PerMethod.class);
+        assertTrue(result.wasSuccessful());
+        assertEquals(3, constructions);
+    }
+
+    @Test
+    public void createsOneInstancePerClass() {
+        Result result = JUnitCore.runClasses(PerClass.class);
+        assertTrue(result.wasSuccessful());
+        assertEquals(1, constructions);
+    }
+
+    @Test
+    public void runsBeforesAndRulesForEachMethodOfPerClassInstance() {
+        JUnitCore.runClasses(PerClass.class);
+        assertEquals(3, befores);
+        assertEquals(3, ruleApplications);
+    }
+
+    @TestInstance(Lifecycle.PER_CLASS)
+    @FixMethodOrder(MethodSorters.NAME_ASCENDING)
+    public static class Stateful {
+        private int runs;
+
+        @Test
+        public void first() {
+            assertEquals(1, ++runs);
+        }
+
+        @Test
+        public void second() {
+            assertEquals(2, ++runs);
+        }
+    }
+
+    @Test
+    public void fieldsKeepTheirValuesBetweenMethodsOfPerClassInstance() {
+        Result result = JUnitCore.runClasses(Stateful.class);
+        assertEquals(0, result.getFailureCount());
+    }
+}